@@ -0,0 +1,120 @@
+package com.learn.springboot.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive admission control for the employee API.
+ * Reads and writes get their own {@link ConcurrencyLimiter}: reads are rejected immediately once their limit is
+ * reached, writes may wait a short while for a slot. Rejected requests get a 503 with a Retry-After header
+ * instead of piling up on Tomcat threads and the Hikari pool.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/employee";
+
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+    private final long writeMaxWaitNanos;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            @Value("${employee.admission.read.initial-limit:20}") int readInitialLimit,
+            @Value("${employee.admission.read.max-limit:200}") int readMaxLimit,
+            @Value("${employee.admission.write.initial-limit:10}") int writeInitialLimit,
+            @Value("${employee.admission.write.max-limit:100}") int writeMaxLimit,
+            @Value("${employee.admission.write.max-queued:50}") int writeMaxQueued,
+            @Value("${employee.admission.write.max-wait-ms:200}") long writeMaxWaitMillis,
+            @Value("${employee.admission.latency-threshold-ms:250}") long latencyThresholdMillis,
+            @Value("${employee.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${employee.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.readLimiter = new ConcurrencyLimiter("reads",
+                new AimdLimit(readInitialLimit, 1, readMaxLimit, backoffRatio, thresholdNanos), 0);
+        this.writeLimiter = new ConcurrencyLimiter("writes",
+                new AimdLimit(writeInitialLimit, 1, writeMaxLimit, backoffRatio, thresholdNanos), writeMaxQueued);
+        this.writeMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(writeMaxWaitMillis);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        ConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire(read ? 0 : writeMaxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Rejecting {} {} : {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = isDrop(response.getStatus());
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    /**
+     * Puts both limits back to their initial values, for samples that say nothing about production traffic
+     * such as the sequential cold requests of the warm-up.
+     */
+    public void resetLimits() {
+        readLimiter.reset();
+        writeLimiter.reset();
+    }
+
+    public ConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public ConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    // A 503 is the application shedding load itself (this filter, the change feed subscriber cap), it says nothing
+    // about how the backend copes and must not shrink the limit; failures of the backend surface as other 5xx
+    private static boolean isDrop(int status) {
+        return status >= HttpStatus.INTERNAL_SERVER_ERROR.value() && status != HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -0,0 +1,40 @@
+package com.learn.springboot.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlMetrics implements MeterBinder {
+
+    private final AdmissionControlFilter admissionControlFilter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ConcurrencyLimiter limiter : List.of(admissionControlFilter.getReadLimiter(),
+                admissionControlFilter.getWriteLimiter())) {
+            Gauge.builder("employee.admission.limit", limiter, ConcurrencyLimiter::getLimit)
+                    .tag("class", limiter.getName())
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("employee.admission.inflight", limiter, ConcurrencyLimiter::getInflight)
+                    .tag("class", limiter.getName())
+                    .description("Requests currently being processed")
+                    .register(registry);
+            Gauge.builder("employee.admission.queued", limiter, ConcurrencyLimiter::getQueued)
+                    .tag("class", limiter.getName())
+                    .description("Requests waiting for a free slot")
+                    .register(registry);
+            FunctionCounter.builder("employee.admission.rejected", limiter, ConcurrencyLimiter::getRejected)
+                    .tag("class", limiter.getName())
+                    .description("Requests rejected with 503")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.learn.springboot.admission;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit.
+ * The limit grows by one while requests finish under the latency threshold and the limit is actually in use,
+ * and is cut by {@code backoffRatio} as soon as a request is slow or fails.
+ */
+public class AimdLimit {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private volatile int limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds : min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1 : " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.initialLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = this.initialLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public synchronized void reset() {
+        limit = initialLimit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inflight * 2 >= current) {
+            // Only grow when at least half the limit is in use, otherwise an idle service would ratchet up to max
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.learn.springboot.admission;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of in-flight requests of one endpoint class at the current {@link AimdLimit}.
+ * Callers either fail fast ({@code maxWaitNanos == 0}) or wait in a bounded queue for a free slot.
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final AimdLimit limit;
+    private final int maxQueued;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    // volatile so the metrics gauges can read them without taking the lock
+    private volatile int inflight;
+    private volatile int queued;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(String name, AimdLimit limit, int maxQueued) {
+        this.name = name;
+        this.limit = limit;
+        this.maxQueued = maxQueued;
+    }
+
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inflight < limit.getLimit()) {
+                inflight++;
+                return true;
+            }
+            if (maxWaitNanos <= 0 || queued >= maxQueued) {
+                rejected.increment();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inflight >= limit.getLimit()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inflight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            limit.onSample(rttNanos, inflight, dropped);
+            inflight--;
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reset() {
+        lock.lock();
+        try {
+            limit.reset();
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,28 @@
+package com.learn.springboot.controller;
+
+import com.learn.springboot.feed.EmployeeChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/employee")
+public class EmployeeChangeFeedController {
+
+    private final EmployeeChangeFeed employeeChangeFeed;
+
+    // Browsers resend the last received event id in Last-Event-ID on reconnect, other clients may pass ?since=.
+    // The header is set here because response body advice never sees an SseEmitter
+    @GetMapping(path = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(name = "since", required = false) String since) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(employeeChangeFeed.subscribe(lastEventId != null ? lastEventId : since));
+    }
+}
@@ -1,5 +1,7 @@
 package com.learn.springboot.controller;
 
+import com.learn.springboot.dto.EmployeeBatchItemResult;
+import com.learn.springboot.dto.EmployeeBatchResult;
 import com.learn.springboot.entity.Employee;
 import com.learn.springboot.service.EmployeeService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -27,6 +30,16 @@ public class EmployeeController {
         return employeeService.getAllEmployees();
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    public List<Map<String, Object>> getAllEmployees(@RequestParam List<String> fields) {
+        return employeeService.getAllEmployees(fields);
+    }
+
+    @GetMapping(params = "ids")
+    public EmployeeBatchResult getEmployeesByIds(@RequestParam List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
     @GetMapping("{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long empId) {
         return employeeService.getEmployeeById(empId)
@@ -34,6 +47,14 @@ public class EmployeeController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping(path = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeById(@PathVariable("id") long empId,
+                                                               @RequestParam List<String> fields) {
+        return employeeService.getEmployeeById(empId, fields)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable long id, @RequestBody Employee employee) {
         return employeeService.getEmployeeById(id)
@@ -49,6 +70,16 @@ public class EmployeeController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PutMapping("batch")
+    public List<EmployeeBatchItemResult> updateEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.updateEmployees(employees);
+    }
+
+    @DeleteMapping("batch")
+    public List<EmployeeBatchItemResult> deleteEmployees(@RequestBody List<Long> ids) {
+        return employeeService.deleteEmployees(ids);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<?> deleteEmplouee( @PathVariable long id) {
         employeeService.deleteEmployee(id);
@@ -0,0 +1,21 @@
+package com.learn.springboot.controller;
+
+import com.learn.springboot.dto.EmployeeStats;
+import com.learn.springboot.stats.EmployeeStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/employee")
+public class EmployeeStatsController {
+
+    private final EmployeeStatistics employeeStatistics;
+
+    @GetMapping("stats")
+    public EmployeeStats getStats() {
+        return employeeStatistics.getStats();
+    }
+}
@@ -0,0 +1,14 @@
+package com.learn.springboot.dto;
+
+import lombok.*;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EmployeeBatchItemResult {
+    private Long id;
+
+    private EmployeeBatchStatus status;
+}
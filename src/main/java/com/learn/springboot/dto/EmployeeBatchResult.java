@@ -0,0 +1,17 @@
+package com.learn.springboot.dto;
+
+import com.learn.springboot.entity.Employee;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EmployeeBatchResult {
+    private List<Employee> employees;
+
+    private List<Long> missingIds;
+}
@@ -0,0 +1,9 @@
+package com.learn.springboot.dto;
+
+public enum EmployeeBatchStatus {
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    EMAIL_CONFLICT,
+    INVALID
+}
@@ -0,0 +1,18 @@
+package com.learn.springboot.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EmployeeStats {
+    private long total;
+
+    private Map<String, Long> byEmailDomain;
+
+    private Map<String, Long> byLastNameInitial;
+}
@@ -0,0 +1,18 @@
+package com.learn.springboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published once per chunk by the batch writes instead of one {@link EmployeeChangedEvent} per row, so listeners
+ * can handle the whole chunk at once. {@code changes} are in the order they were applied.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class EmployeeBatchChangedEvent {
+    private final List<EmployeeChangedEvent> changes;
+}
@@ -0,0 +1,7 @@
+package com.learn.springboot.event;
+
+public enum EmployeeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,21 @@
+package com.learn.springboot.event;
+
+import com.learn.springboot.entity.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the service layer after every employee write.
+ * {@code employee} is a detached copy of the state after the write and is {@code null} for deletes.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class EmployeeChangedEvent {
+    private final EmployeeChangeType type;
+
+    private final long employeeId;
+
+    private final Employee employee;
+}
@@ -0,0 +1,15 @@
+package com.learn.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FeedOverloadedException extends RuntimeException {
+    public FeedOverloadedException(String message) {
+        super(message);
+    }
+
+    public FeedOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.learn.springboot.feed;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class EmployeeChange {
+    private final long sequence;
+
+    private final EmployeeChangeType type;
+
+    private final long employeeId;
+
+    private final Employee employee;
+}
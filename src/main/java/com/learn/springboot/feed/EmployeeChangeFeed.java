@@ -0,0 +1,250 @@
+package com.learn.springboot.feed;
+
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.exception.FeedOverloadedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory change feed of employee writes.
+ * Changes get increasing sequence numbers and the last {@code capacity} of them are kept in a ring buffer, so a
+ * client that reconnects with its last seen sequence is sent only what it missed. Every subscriber has a bounded
+ * queue; a subscriber that falls that far behind is disconnected and has to resume from the ring buffer, which
+ * keeps slow consumers from growing the heap or blocking the writers.
+ * Sequences start over on every boot, so event ids are {@code <epoch>-<sequence>} with a random per-boot epoch;
+ * a client resuming with an id from an earlier run, or from ahead of this one, is sent a {@code reset}.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeFeed {
+
+    private static final String RESET_EVENT = "reset";
+    private static final char ID_SEPARATOR = '-';
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final EmployeeChange[] ring;
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int subscriberQueueCapacity;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final long reconnectDelayMillis;
+
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "employee-feed-" + senderCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EmployeeChangeFeed(@Value("${employee.feed.capacity:1024}") int capacity,
+                              @Value("${employee.feed.subscriber-queue-capacity:256}") int subscriberQueueCapacity,
+                              @Value("${employee.feed.max-subscribers:100}") int maxSubscribers,
+                              @Value("${employee.feed.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                              @Value("${employee.feed.reconnect-delay-ms:3000}") long reconnectDelayMillis) {
+        this.ring = new EmployeeChange[capacity];
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    // Runs after the writing transaction commits, or right away when the write had no surrounding transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        List<Subscriber> signalled;
+        synchronized (this) {
+            EmployeeChange change = new EmployeeChange(++lastSequence, event.getType(), event.getEmployeeId(),
+                    event.getEmployee());
+            ring[(int) (change.getSequence() % ring.length)] = change;
+            signalled = new ArrayList<>(subscribers.size());
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(toSseEvent(change))) {
+                    signalled.add(subscriber);
+                }
+            }
+        }
+        signalled.forEach(Subscriber::scheduleDrain);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeeBatchChangedEvent event) {
+        event.getChanges().forEach(this::onEmployeeChanged);
+    }
+
+    // Keeps idle streams from being cut by proxies, subscribers with pending events need no extra traffic
+    @Scheduled(fixedRateString = "${employee.feed.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty() && subscriber.offer(SseEmitter.event().comment("heartbeat"))) {
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Returns the retained changes after the event with id {@code lastEventId}, or {@code null} when the id is
+     * from another boot, ahead of this feed, or some of the changes were already overwritten, and the caller has
+     * to start over from a full read.
+     */
+    public synchronized List<EmployeeChange> changesAfter(String lastEventId) {
+        int separator = lastEventId.lastIndexOf(ID_SEPARATOR);
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return changesAfter(Long.parseLong(lastEventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the retained changes after {@code sequence} of this boot, or {@code null} when the sequence is ahead
+     * of the feed or some of the changes were already overwritten.
+     */
+    public synchronized List<EmployeeChange> changesAfter(long sequence) {
+        long oldestRetained = Math.max(1, lastSequence - ring.length + 1);
+        if (sequence > lastSequence || sequence + 1 < oldestRetained) {
+            return null;
+        }
+        List<EmployeeChange> changes = new ArrayList<>();
+        for (long next = Math.max(sequence + 1, oldestRetained); next <= lastSequence; next++) {
+            changes.add(ring[(int) (next % ring.length)]);
+        }
+        return changes;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public String eventId(long sequence) {
+        return epoch + ID_SEPARATOR + sequence;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new FeedOverloadedException("Change feed already has " + maxSubscribers + " subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Sent right away so the client gets the response headers even while no employee changes
+        subscriber.offer(SseEmitter.event().reconnectTime(reconnectDelayMillis).comment("connected"));
+        // Registering and reading the backlog under the same lock means no change is missed or sent twice
+        synchronized (this) {
+            if (lastEventId != null) {
+                List<EmployeeChange> backlog = changesAfter(lastEventId);
+                // Unknown position or too far behind to catch up event by event, the client has to reload the list
+                if (backlog == null || backlog.size() >= subscriberQueueCapacity - 1) {
+                    subscriber.offer(SseEmitter.event().name(RESET_EVENT).id(eventId(lastSequence))
+                            .data(lastSequence));
+                } else {
+                    backlog.forEach(change -> subscriber.offer(toSseEvent(change)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(EmployeeChange change) {
+        return SseEmitter.event()
+                .id(eventId(change.getSequence()))
+                .name(change.getType().name())
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(subscriberQueueCapacity);
+        }
+
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return false;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Disconnecting change feed subscriber that is {} events behind", queue.size());
+                close();
+                // Completing may wait for a blocked write to that client, so never do it on the writer's thread
+                sender.execute(emitter::complete);
+                return false;
+            }
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed subscriber went away : {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
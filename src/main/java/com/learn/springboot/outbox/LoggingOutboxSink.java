@@ -0,0 +1,21 @@
+package com.learn.springboot.outbox;
+
+import com.learn.springboot.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.outbox.sink", havingValue = "logging", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("Employee {} {} : {}", event.getEmployeeId(), event.getEventType(), event.getPayload());
+        }
+    }
+}
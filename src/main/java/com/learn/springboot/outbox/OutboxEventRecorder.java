@@ -0,0 +1,61 @@
+package com.learn.springboot.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.springboot.entity.OutboxEvent;
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.repo.EmployeeBatchRepository;
+import com.learn.springboot.repo.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Writes every employee change to the outbox table. This is a plain (synchronous) listener and requires the
+ * caller's transaction, so the outbox row commits or rolls back together with the change itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEventRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EmployeeBatchRepository employeeBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event, Instant.now()));
+    }
+
+    // IDENTITY ids keep Hibernate from batching inserts, so a chunk's rows go out as one JDBC batch instead
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeesChanged(EmployeeBatchChangedEvent event) {
+        Instant now = Instant.now();
+        employeeBatchRepository.insertOutboxEvents(event.getChanges().stream()
+                .map(change -> toOutboxEvent(change, now))
+                .toList());
+    }
+
+    private OutboxEvent toOutboxEvent(EmployeeChangedEvent event, Instant createdAt) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return OutboxEvent.builder()
+                .employeeId(event.getEmployeeId())
+                .eventType(event.getType().name())
+                .payload(payload)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.learn.springboot.outbox;
+
+import com.learn.springboot.entity.OutboxEvent;
+import com.learn.springboot.repo.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox in the background. Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, handed to the
+ * {@link OutboxSink} and deleted with one statement, all in one transaction; a failing sink rolls the batch back
+ * so it is retried on the next poll.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${employee.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${employee.outbox.relay.max-batches-per-poll:20}") int maxBatchesPerPoll) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.relay.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Relaying outbox events failed, the batch stays in the outbox", e);
+        }
+    }
+
+    /**
+     * Publishes full batches back to back until the outbox is drained or the per-poll cap is reached.
+     *
+     * @return number of events published
+     */
+    public int relay() {
+        int published = 0;
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            Integer count = transactionTemplate.execute(status -> publishBatch());
+            published += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return published;
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        outboxSink.publish(events);
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        return events.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.learn.springboot.outbox;
+
+import com.learn.springboot.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events, e.g. a message broker.
+ * Throwing from {@link #publish(List)} leaves the batch in the outbox to be retried, so delivery is at least once.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events);
+}
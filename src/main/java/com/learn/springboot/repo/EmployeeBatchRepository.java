@@ -0,0 +1,98 @@
+package com.learn.springboot.repo;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Plain JDBC access for bulk employee writes and their outbox rows. Every write method sends all rows as one JDBC
+ * batch and returns the per-row update counts; callers run it inside their own transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeBatchRepository {
+
+    private static final String FIND_EMAILS_BY_IDS = "select id, email from employees where id in (:ids)";
+    private static final String FIND_IDS_BY_EMAILS = "select id, email from employees where email in (:emails)";
+    private static final String UPDATE = "update employees set first_name = ?, last_name = ?, email = ? where id = ?";
+    private static final String DELETE = "delete from employees where id = ?";
+    private static final String INSERT_OUTBOX_EVENT =
+            "insert into employee_outbox (employee_id, event_type, payload, created_at) values (?, ?, ?, ?)";
+    // Instants are stored as UTC, the same way Hibernate writes the OutboxEvent entity
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<Long, String> findEmailsByIds(Collection<Long> ids) {
+        Map<Long, String> emails = new HashMap<>();
+        if (!ids.isEmpty()) {
+            jdbcTemplate.query(FIND_EMAILS_BY_IDS, new MapSqlParameterSource("ids", ids),
+                    rs -> { emails.put(rs.getLong("id"), rs.getString("email")); });
+        }
+        return emails;
+    }
+
+    public Map<String, Long> findIdsByEmails(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        if (!emails.isEmpty()) {
+            jdbcTemplate.query(FIND_IDS_BY_EMAILS, new MapSqlParameterSource("emails", emails),
+                    rs -> { ids.put(rs.getString("email"), rs.getLong("id")); });
+        }
+        return ids;
+    }
+
+    public int[] updateAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE, employees.stream()
+                .map(employee -> new Object[]{
+                        employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getId()})
+                .toList());
+    }
+
+    public int[] insertOutboxEvents(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_OUTBOX_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OutboxEvent event = events.get(i);
+                ps.setLong(1, event.getEmployeeId());
+                ps.setString(2, event.getEventType());
+                ps.setString(3, event.getPayload());
+                ps.setTimestamp(4, Timestamp.from(event.getCreatedAt()), (Calendar) UTC.clone());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    public int[] deleteAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(DELETE, ids.stream()
+                .map(id -> new Object[]{id})
+                .toList());
+    }
+}
@@ -0,0 +1,15 @@
+package com.learn.springboot.repo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads only the requested {@code Employee} attributes, each row is returned as attribute name to value in the
+ * requested order.
+ */
+public interface EmployeeProjectionRepository {
+    List<Map<String, Object>> findAllProjected(List<String> fields);
+
+    Optional<Map<String, Object>> findProjectedById(long id, List<String> fields);
+}
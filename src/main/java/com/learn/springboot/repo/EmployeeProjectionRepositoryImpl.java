@@ -0,0 +1,77 @@
+package com.learn.springboot.repo;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.exception.InvalidFieldsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+class EmployeeProjectionRepositoryImpl implements EmployeeProjectionRepository {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+        query.multiselect(selections(root, fields)).orderBy(cb.asc(root.get(ID)));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(EmployeeProjectionRepositoryImpl::toMap)
+                .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(long id, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+        query.multiselect(selections(root, fields)).where(cb.equal(root.get(ID), id));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(EmployeeProjectionRepositoryImpl::toMap);
+    }
+
+    private List<Selection<?>> selections(Root<Employee> root, List<String> fields) {
+        Set<String> attributes = entityManager.getMetamodel().entity(Employee.class).getAttributes().stream()
+                .map(Attribute::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (fields.isEmpty()) {
+            throw new InvalidFieldsException("At least one field is required, available fields : " + attributes);
+        }
+        List<String> unknown = fields.stream().filter(field -> !attributes.contains(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException("Unknown fields " + unknown + ", available fields : " + attributes);
+        }
+        return fields.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .toList();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
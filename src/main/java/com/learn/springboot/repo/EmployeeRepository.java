@@ -4,11 +4,14 @@ import com.learn.springboot.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeProjectionRepository {
     Optional<Employee> findByEmail(String email);
 
+    List<EmployeeStatsView> findAllStatsViewsBy();
+
 
     @Query("select  e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Optional<Employee> findByFirstNameAndLastNameCustom(String firstName, String lastName);
@@ -0,0 +1,12 @@
+package com.learn.springboot.repo;
+
+/**
+ * The columns the employee statistics are keyed on, read without loading whole entities.
+ */
+public interface EmployeeStatsView {
+    Long getId();
+
+    String getEmail();
+
+    String getLastName();
+}
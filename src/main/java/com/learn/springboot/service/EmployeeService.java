@@ -1,8 +1,11 @@
 package com.learn.springboot.service;
 
+import com.learn.springboot.dto.EmployeeBatchItemResult;
+import com.learn.springboot.dto.EmployeeBatchResult;
 import com.learn.springboot.entity.Employee;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface EmployeeService {
@@ -12,7 +15,17 @@ public interface EmployeeService {
 
     Optional<Employee> getEmployeeById(long id);
 
+    List<Map<String, Object>> getAllEmployees(List<String> fields);
+
+    Optional<Map<String, Object>> getEmployeeById(long id, List<String> fields);
+
+    EmployeeBatchResult getEmployeesByIds(List<Long> ids);
+
     Employee updateEmployee(Employee updated);
 
     void deleteEmployee(long id);
+
+    List<EmployeeBatchItemResult> updateEmployees(List<Employee> employees);
+
+    List<EmployeeBatchItemResult> deleteEmployees(List<Long> ids);
 }
@@ -1,48 +1,298 @@
 package com.learn.springboot.service.impl;
 
+import com.learn.springboot.dto.EmployeeBatchItemResult;
+import com.learn.springboot.dto.EmployeeBatchResult;
+import com.learn.springboot.dto.EmployeeBatchStatus;
 import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangeType;
+import com.learn.springboot.event.EmployeeChangedEvent;
 import com.learn.springboot.exception.EmailAlreadyExistException;
+import com.learn.springboot.repo.EmployeeBatchRepository;
 import com.learn.springboot.repo.EmployeeRepository;
 import com.learn.springboot.service.EmployeeService;
+import com.learn.springboot.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final String ALL_EMPLOYEES = "all";
+
     private final EmployeeRepository employeeRepository;
 
+    private final EmployeeBatchRepository employeeBatchRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Upper bound for the IN list of one findAllById query, larger id sets are split into several queries.
+    // Batch writes use it as their chunk size, each chunk is one transaction
+    @Value("${employee.batch.max-in-list-size:500}")
+    private int maxInListSize = 500;
+
+    // Concurrent identical lookups share one in-flight query, followers get their own copies of the entities
+    private final SingleFlight<Long, Optional<Employee>> employeeByIdCalls = new SingleFlight<>();
+    private final SingleFlight<String, Optional<Employee>> employeeByEmailCalls = new SingleFlight<>();
+    private final SingleFlight<String, List<Employee>> allEmployeesCalls = new SingleFlight<>();
+
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmp = employeeRepository.findByEmail(employee.getEmail());
+        Optional<Employee> savedEmp = employeeByEmailCalls.execute(employee.getEmail(),
+                () -> employeeRepository.findByEmail(employee.getEmail()), UnaryOperator.identity());
         if(savedEmp.isPresent()) {
             throw new EmailAlreadyExistException("Employee already exist with given email : " + employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        afterCommit(() -> {
+            employeeByEmailCalls.forget(saved.getEmail());
+            allEmployeesCalls.forget(ALL_EMPLOYEES);
+        });
+        eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangeType.CREATED, saved.getId(), copy(saved)));
+        return saved;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+        return allEmployeesCalls.execute(ALL_EMPLOYEES, employeeRepository::findAll,
+                employees -> employees.stream().map(EmployeeServiceImpl::copy).toList());
     }
 
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeByIdCalls.execute(id, () -> employeeRepository.findById(id),
+                employee -> employee.map(EmployeeServiceImpl::copy));
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllEmployees(List<String> fields) {
+        return employeeRepository.findAllProjected(normalize(fields));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getEmployeeById(long id, List<String> fields) {
+        return employeeRepository.findProjectedById(id, normalize(fields));
     }
 
     @Override
+    public EmployeeBatchResult getEmployeesByIds(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += maxInListSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + maxInListSize, distinctIds.size()));
+            employeeRepository.findAllById(chunk).forEach(employee -> found.put(employee.getId(), employee));
+        }
+
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return EmployeeBatchResult.builder()
+                .employees(employees)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public Employee updateEmployee(Employee updated) {
-        return employeeRepository.save(updated);
+        // loaded into the persistence context here, so the merge in save() below needs no second SELECT
+        Optional<String> previousEmail = updated.getId() == null
+                ? Optional.empty()
+                : employeeRepository.findById(updated.getId()).map(Employee::getEmail);
+        Employee saved = employeeRepository.save(updated);
+        Long id = saved.getId();
+        String email = saved.getEmail();
+        afterCommit(() -> {
+            employeeByIdCalls.forget(id);
+            previousEmail.ifPresent(employeeByEmailCalls::forget);
+            employeeByEmailCalls.forget(email);
+            allEmployeesCalls.forget(ALL_EMPLOYEES);
+        });
+        eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangeType.UPDATED, saved.getId(), copy(saved)));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+        // deleteById silently ignores unknown ids, only a row that existed may show up as a change
+        employeeRepository.findById(id).ifPresent(employee -> {
+            employeeRepository.delete(employee);
+            String email = employee.getEmail();
+            afterCommit(() -> {
+                employeeByIdCalls.forget(id);
+                employeeByEmailCalls.forget(email);
+                allEmployeesCalls.forget(ALL_EMPLOYEES);
+            });
+            eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangeType.DELETED, id, null));
+        });
+    }
+
+    @Override
+    public List<EmployeeBatchItemResult> updateEmployees(List<Employee> employees) {
+        List<EmployeeBatchItemResult> results = new ArrayList<>(employees.size());
+        for (int from = 0; from < employees.size(); from += maxInListSize) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + maxInListSize, employees.size()));
+            results.addAll(transactionTemplate.execute(status -> updateChunk(chunk)));
+        }
+        return results;
+    }
+
+    @Override
+    public List<EmployeeBatchItemResult> deleteEmployees(List<Long> ids) {
+        List<EmployeeBatchItemResult> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += maxInListSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + maxInListSize, ids.size()));
+            results.addAll(transactionTemplate.execute(status -> deleteChunk(chunk)));
+        }
+        return results;
+    }
+
+    private List<EmployeeBatchItemResult> updateChunk(List<Employee> chunk) {
+        Map<Long, String> currentEmails = employeeBatchRepository.findEmailsByIds(chunk.stream()
+                .filter(Objects::nonNull).map(Employee::getId).filter(Objects::nonNull).distinct().toList());
+        Map<String, Long> emailOwners = employeeBatchRepository.findIdsByEmails(chunk.stream()
+                .filter(Objects::nonNull).map(Employee::getEmail).filter(StringUtils::hasText).distinct().toList());
+
+        EmployeeBatchStatus[] statuses = new EmployeeBatchStatus[chunk.size()];
+        List<Employee> toUpdate = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            if (employee == null || employee.getId() == null || !StringUtils.hasText(employee.getFirstName())
+                    || !StringUtils.hasText(employee.getLastName()) || !StringUtils.hasText(employee.getEmail())) {
+                statuses[i] = EmployeeBatchStatus.INVALID;
+            } else if (!currentEmails.containsKey(employee.getId())) {
+                statuses[i] = EmployeeBatchStatus.NOT_FOUND;
+            } else if (!employee.getId().equals(emailOwners.getOrDefault(employee.getEmail(), employee.getId()))) {
+                statuses[i] = EmployeeBatchStatus.EMAIL_CONFLICT;
+            } else {
+                // claimed for the rest of the chunk, two items cannot move to the same address
+                emailOwners.put(employee.getEmail(), employee.getId());
+                toUpdate.add(employee);
+                positions.add(i);
+            }
+        }
+
+        int[] counts = employeeBatchRepository.updateAll(toUpdate);
+        List<Long> updatedIds = new ArrayList<>(counts.length);
+        List<String> changedEmails = new ArrayList<>(counts.length * 2);
+        List<EmployeeChangedEvent> changes = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            Employee updated = toUpdate.get(i);
+            // rows deleted since the lookup above report 0, drivers may also report SUCCESS_NO_INFO (-2)
+            if (counts[i] == 0) {
+                statuses[positions.get(i)] = EmployeeBatchStatus.NOT_FOUND;
+                continue;
+            }
+            statuses[positions.get(i)] = EmployeeBatchStatus.UPDATED;
+            updatedIds.add(updated.getId());
+            changedEmails.add(currentEmails.get(updated.getId()));
+            changedEmails.add(updated.getEmail());
+            changes.add(new EmployeeChangedEvent(EmployeeChangeType.UPDATED, updated.getId(), copy(updated)));
+        }
+        if (!changes.isEmpty()) {
+            afterCommit(() -> {
+                updatedIds.forEach(employeeByIdCalls::forget);
+                changedEmails.forEach(employeeByEmailCalls::forget);
+                allEmployeesCalls.forget(ALL_EMPLOYEES);
+            });
+            eventPublisher.publishEvent(new EmployeeBatchChangedEvent(changes));
+        }
+
+        List<EmployeeBatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(new EmployeeBatchItemResult(chunk.get(i) == null ? null : chunk.get(i).getId(), statuses[i]));
+        }
+        return results;
+    }
+
+    private List<EmployeeBatchItemResult> deleteChunk(List<Long> chunk) {
+        List<Long> distinctIds = chunk.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, String> emails = employeeBatchRepository.findEmailsByIds(distinctIds);
+        List<Long> toDelete = distinctIds.stream().filter(emails::containsKey).toList();
+
+        Map<Long, EmployeeBatchStatus> statuses = new HashMap<>();
+        List<EmployeeChangedEvent> changes = new ArrayList<>(toDelete.size());
+        int[] counts = employeeBatchRepository.deleteAllById(toDelete);
+        for (int i = 0; i < counts.length; i++) {
+            Long id = toDelete.get(i);
+            if (counts[i] == 0) {
+                continue;
+            }
+            statuses.put(id, EmployeeBatchStatus.DELETED);
+            changes.add(new EmployeeChangedEvent(EmployeeChangeType.DELETED, id, null));
+        }
+        if (!changes.isEmpty()) {
+            List<Long> deletedIds = changes.stream().map(EmployeeChangedEvent::getEmployeeId).toList();
+            afterCommit(() -> {
+                deletedIds.forEach(employeeByIdCalls::forget);
+                deletedIds.forEach(id -> employeeByEmailCalls.forget(emails.get(id)));
+                allEmployeesCalls.forget(ALL_EMPLOYEES);
+            });
+            eventPublisher.publishEvent(new EmployeeBatchChangedEvent(changes));
+        }
+
+        return chunk.stream()
+                .map(id -> new EmployeeBatchItemResult(id, id == null
+                        ? EmployeeBatchStatus.INVALID
+                        : statuses.getOrDefault(id, EmployeeBatchStatus.NOT_FOUND)))
+                .toList();
+    }
+
+    // In-flight lookups are dropped only once the write is visible: a lookup starting before the commit would
+    // read the old row again and hand it to every caller joining it, even after the write returned
+    private static void afterCommit(Runnable forget) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget.run();
+            }
+        });
+    }
+
+    private static List<String> normalize(List<String> fields) {
+        return fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
     }
 
 }
@@ -0,0 +1,173 @@
+package com.learn.springboot.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.service.EmployeeService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of the full employee list, kept plain and gzipped in direct buffers outside the heap.
+ * Every write through {@link EmployeeService} marks the snapshot stale right away and schedules a rebuild at most
+ * once per debounce window, so readers never get data older than the last committed service write; they fall
+ * back to the regular controller path until the rebuild is done.
+ * Writes this instance never sees (other instances, SQL run directly against the database) are bounded by
+ * {@code max-age}: an older snapshot is not served, and it is rebuilt every half max-age to stay servable.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.list-snapshot.enabled", havingValue = "true")
+public class EmployeeListSnapshot {
+
+    private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final long debounceMillis;
+    private final long maxAgeMillis;
+
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-list-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EmployeeListSnapshot(EmployeeService employeeService, ObjectMapper objectMapper,
+                                @Value("${employee.list-snapshot.debounce-ms:200}") long debounceMillis,
+                                @Value("${employee.list-snapshot.max-age-ms:2000}") long maxAgeMillis) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.debounceMillis = debounceMillis;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduleRebuild(0);
+        long refreshMillis = Math.max(1, maxAgeMillis / 2);
+        rebuilder.scheduleWithFixedDelay(() -> scheduleRebuild(0), refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        writeVersion.incrementAndGet();
+        scheduleRebuild(debounceMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeeBatchChangedEvent event) {
+        writeVersion.incrementAndGet();
+        scheduleRebuild(debounceMillis);
+    }
+
+    /**
+     * Returns the current snapshot, or {@code null} when there were writes since it was built or it is older than
+     * the max age.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null && current.version == writeVersion.get()
+                && System.nanoTime() - current.readAtNanos <= TimeUnit.MILLISECONDS.toNanos(maxAgeMillis)
+                ? current : null;
+    }
+
+    public void rebuild() {
+        rebuildScheduled.set(false);
+        // Read the version first, a write that lands during the rebuild leaves the new snapshot stale
+        long version = writeVersion.get();
+        long readAtNanos = System.nanoTime();
+        List<Employee> employees = employeeService.getAllEmployees();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(employees);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        snapshot = new Snapshot(version, readAtNanos, toDirectBuffer(json), toDirectBuffer(gzip(json)),
+                employees.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Rebuilding the employee list snapshot failed, serving from the database", e);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        // the age counts from the database read, not from when serializing finished
+        private final long readAtNanos;
+        private final ByteBuffer json;
+        private final ByteBuffer gzippedJson;
+        private final int employeeCount;
+
+        private Snapshot(long version, long readAtNanos, ByteBuffer json, ByteBuffer gzippedJson, int employeeCount) {
+            this.version = version;
+            this.readAtNanos = readAtNanos;
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+            this.employeeCount = employeeCount;
+        }
+
+        // duplicate() gives every reader its own position over the shared bytes
+        public ByteBuffer json() {
+            return json.duplicate();
+        }
+
+        public ByteBuffer gzippedJson() {
+            return gzippedJson.duplicate();
+        }
+
+        public int getEmployeeCount() {
+            return employeeCount;
+        }
+    }
+}
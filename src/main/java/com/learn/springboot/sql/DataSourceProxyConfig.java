@@ -0,0 +1,38 @@
+package com.learn.springboot.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public QueryCounter queryCounter(@Value("${employee.sql.slow-query-threshold-ms:500}") long slowQueryThresholdMillis,
+                                     @Value("${employee.sql.query-counting.enabled:false}") boolean countingEnabled) {
+        return new QueryCounter(slowQueryThresholdMillis, countingEnabled);
+    }
+
+    // static so the post processor is registered without initializing this configuration early
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(queryCounter.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
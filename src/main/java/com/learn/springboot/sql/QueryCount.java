@@ -0,0 +1,33 @@
+package com.learn.springboot.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Statements executed on one thread since the last {@link QueryCounter#reset()}.
+ * {@code selectExecutions} counts how often each distinct SELECT was run, a high count for one statement is
+ * the signature of an N+1 access pattern.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class QueryCount {
+    private final int selects;
+
+    private final int inserts;
+
+    private final int updates;
+
+    private final int deletes;
+
+    private final int others;
+
+    private final Map<String, Integer> selectExecutions;
+
+    public int getTotal() {
+        return selects + inserts + updates + deletes + others;
+    }
+}
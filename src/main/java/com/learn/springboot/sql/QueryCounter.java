@@ -0,0 +1,103 @@
+package com.learn.springboot.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Logs statements slower than the threshold together with the service method that issued them and, when counting
+ * is enabled, counts the statements every thread sends through the proxied data source.
+ * A batch execution counts as one statement, the same as one round trip to the database. Counting is meant for
+ * tests asserting query budgets, production only needs the slow query log.
+ */
+@Slf4j
+public class QueryCounter implements QueryExecutionListener {
+
+    private static final String SERVICE_PACKAGE = "com.learn.springboot.service.";
+    private static final String APPLICATION_PACKAGE = "com.learn.springboot.";
+    // Distinct SELECTs remembered per thread, so long-lived pool threads never grow this without bound
+    private static final int MAX_TRACKED_SELECTS = 256;
+
+    private final long slowQueryThresholdMillis;
+    private final boolean countingEnabled;
+    private final ThreadLocal<Counts> counts = ThreadLocal.withInitial(Counts::new);
+
+    public QueryCounter(long slowQueryThresholdMillis, boolean countingEnabled) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.countingEnabled = countingEnabled;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (countingEnabled) {
+            Counts current = counts.get();
+            for (QueryInfo queryInfo : queryInfoList) {
+                current.record(queryInfo.getQuery());
+            }
+        }
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            log.warn("Slow query ({} ms) from {} : {}", execInfo.getElapsedTime(), callingMethod(),
+                    queryInfoList.stream().map(QueryInfo::getQuery).toList());
+        }
+    }
+
+    public void reset() {
+        counts.remove();
+    }
+
+    public QueryCount snapshot() {
+        if (!countingEnabled) {
+            throw new IllegalStateException("Statement counting is off, set employee.sql.query-counting.enabled=true");
+        }
+        Counts current = counts.get();
+        return new QueryCount(
+                current.byType.getOrDefault(QueryType.SELECT, 0),
+                current.byType.getOrDefault(QueryType.INSERT, 0),
+                current.byType.getOrDefault(QueryType.UPDATE, 0),
+                current.byType.getOrDefault(QueryType.DELETE, 0),
+                current.byType.getOrDefault(QueryType.OTHER, 0),
+                Map.copyOf(current.selectExecutions));
+    }
+
+    private static String callingMethod() {
+        Optional<StackWalker.StackFrame> caller = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                .findFirst());
+        if (caller.isEmpty()) {
+            caller = StackWalker.getInstance().walk(frames -> frames
+                    .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                            && !frame.getClassName().startsWith(QueryCounter.class.getPackageName()))
+                    .findFirst());
+        }
+        return caller.map(frame -> frame.getClassName() + "." + frame.getMethodName()).orElse("unknown");
+    }
+
+    private static final class Counts {
+        private final Map<QueryType, Integer> byType = new EnumMap<>(QueryType.class);
+        private final Map<String, Integer> selectExecutions = new HashMap<>();
+
+        private void record(String query) {
+            QueryType type = QueryUtils.getQueryType(query);
+            byType.merge(type, 1, Integer::sum);
+            if (type == QueryType.SELECT) {
+                if (selectExecutions.size() >= MAX_TRACKED_SELECTS && !selectExecutions.containsKey(query)) {
+                    selectExecutions.clear();
+                }
+                selectExecutions.merge(query, 1, Integer::sum);
+            }
+        }
+    }
+}
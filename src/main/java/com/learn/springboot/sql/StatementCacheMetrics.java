@@ -0,0 +1,81 @@
+package com.learn.springboot.sql;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publishes how well the prepared statement cache works, sampled from the MySQL status counters.
+ * With {@code useServerPrepStmts} and {@code cachePrepStmts} a cached statement is executed again without being
+ * prepared again, so the hit ratio over the last interval is {@code 1 - prepares / executions}.
+ * The counters are server wide and include other clients of the same MySQL instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "employee.sql.statement-cache-metrics.enabled", havingValue = "true")
+public class StatementCacheMetrics implements MeterBinder {
+
+    private static final String STATUS_QUERY =
+            "show global status where Variable_name in ('Com_stmt_prepare', 'Com_stmt_execute')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile long prepares = -1;
+    private volatile long executions = -1;
+    private volatile double hitRatio = Double.NaN;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.sql.statements.prepared", this, metrics -> Math.max(metrics.prepares, 0))
+                .description("Statements prepared on the MySQL server")
+                .register(registry);
+        FunctionCounter.builder("employee.sql.statements.executed", this, metrics -> Math.max(metrics.executions, 0))
+                .description("Prepared statement executions on the MySQL server")
+                .register(registry);
+        Gauge.builder("employee.sql.statement-cache.hit-ratio", this, metrics -> metrics.hitRatio)
+                .description("Share of prepared statement executions served without a new prepare, last interval")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.sql.statement-cache-metrics.interval-ms:15000}")
+    public void sample() {
+        long currentPrepares = 0;
+        long currentExecutions = 0;
+        try {
+            for (Map<String, Object> row : jdbcTemplate.queryForList(STATUS_QUERY)) {
+                long value = Long.parseLong(String.valueOf(row.get("Value")));
+                if ("Com_stmt_prepare".equalsIgnoreCase(String.valueOf(row.get("Variable_name")))) {
+                    currentPrepares = value;
+                } else {
+                    currentExecutions = value;
+                }
+            }
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Sampling the statement cache counters failed", e);
+            return;
+        }
+
+        long executed = currentExecutions - executions;
+        if (executions >= 0 && executed > 0) {
+            double missRatio = (double) (currentPrepares - prepares) / executed;
+            hitRatio = Math.min(1, Math.max(0, 1 - missRatio));
+        }
+        prepares = currentPrepares;
+        executions = currentExecutions;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+}
@@ -0,0 +1,171 @@
+package com.learn.springboot.stats;
+
+import com.learn.springboot.dto.EmployeeStats;
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangeType;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.repo.EmployeeStatsView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Employee counts kept up to date from {@link EmployeeChangedEvent}s instead of scanning the table per request.
+ * The counters are built from the database once the application is ready and then periodically rebuilt, which
+ * corrects any drift from writes that bypassed the service layer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeStatistics {
+
+    private static final String UNKNOWN = "(none)";
+
+    private final EmployeeRepository employeeRepository;
+
+    private volatile Counts counts = new Counts();
+    // Counts being rebuilt from the database, changes during the rebuild are applied to both
+    private volatile Counts rebuilding;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        // rebuilding is read before counts: a reconcile swapping them in between then hands us the rebuilt
+        // counts in both reads, read the other way round the event would reach only the replaced counts
+        Counts target = rebuilding;
+        Counts current = counts;
+        apply(current, event);
+        if (target != null && target != current) {
+            // the event is newer than anything the rebuild read, its row must not be overwritten by the rebuild
+            synchronized (target) {
+                apply(target, event);
+                target.changedDuringRebuild.add(event.getEmployeeId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeeBatchChangedEvent event) {
+        event.getChanges().forEach(this::onEmployeeChanged);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${employee.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${employee.stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Counts rebuilt = new Counts();
+        rebuilding = rebuilt;
+        try {
+            for (EmployeeStatsView row : employeeRepository.findAllStatsViewsBy()) {
+                synchronized (rebuilt) {
+                    if (!rebuilt.changedDuringRebuild.contains(row.getId())) {
+                        rebuilt.upsert(row.getId(), keyOf(row.getEmail(), row.getLastName()));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            throw e;
+        }
+        long drift = rebuilt.total.sum() - counts.total.sum();
+        if (drift != 0) {
+            log.info("Employee statistics were off by {} employees, replacing them with the rebuilt counts", drift);
+        }
+        counts = rebuilt;
+        rebuilding = null;
+        rebuilt.changedDuringRebuild.clear();
+    }
+
+    public EmployeeStats getStats() {
+        Counts current = counts;
+        return EmployeeStats.builder()
+                .total(current.total.sum())
+                .byEmailDomain(toSortedMap(current.byEmailDomain))
+                .byLastNameInitial(toSortedMap(current.byLastNameInitial))
+                .build();
+    }
+
+    private static void apply(Counts target, EmployeeChangedEvent event) {
+        if (event.getType() == EmployeeChangeType.DELETED) {
+            target.remove(event.getEmployeeId());
+        } else {
+            Employee employee = event.getEmployee();
+            target.upsert(event.getEmployeeId(), keyOf(employee.getEmail(), employee.getLastName()));
+        }
+    }
+
+    private static Key keyOf(String email, String lastName) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        String domain = at < 0 || at == email.length() - 1 ? UNKNOWN : email.substring(at + 1).toLowerCase(Locale.ROOT);
+
+        String initial = lastName == null || lastName.isBlank() ? UNKNOWN
+                : lastName.strip().substring(0, 1).toUpperCase(Locale.ROOT);
+        return new Key(domain, initial);
+    }
+
+    private static Map<String, Long> toSortedMap(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                result.put(key, count);
+            }
+        });
+        return result;
+    }
+
+    private record Key(String emailDomain, String lastNameInitial) {
+    }
+
+    /**
+     * Striped counters plus the key every employee is currently counted under, so updates and deletes can take
+     * the old key back out without reading the previous row. Applying the same change twice is harmless.
+     */
+    private static final class Counts {
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byEmailDomain = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byLastNameInitial = new ConcurrentHashMap<>();
+        private final Map<Long, Key> keysById = new ConcurrentHashMap<>();
+        // ids changed by events while these counts were being rebuilt, only used until the rebuild finishes
+        private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+        private void upsert(long id, Key key) {
+            Key previous = keysById.put(id, key);
+            if (previous == null) {
+                total.increment();
+            } else {
+                add(previous, -1);
+            }
+            add(key, 1);
+        }
+
+        private void remove(long id) {
+            Key previous = keysById.remove(id);
+            if (previous != null) {
+                total.decrement();
+                add(previous, -1);
+            }
+        }
+
+        private void add(Key key, long delta) {
+            byEmailDomain.computeIfAbsent(key.emailDomain(), k -> new LongAdder()).add(delta);
+            byLastNameInitial.computeIfAbsent(key.lastNameInitial(), k -> new LongAdder()).add(delta);
+        }
+    }
+}
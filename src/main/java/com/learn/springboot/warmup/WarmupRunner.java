@@ -0,0 +1,183 @@
+package com.learn.springboot.warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.springboot.admission.AdmissionControlFilter;
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.snapshot.EmployeeListSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the application up before it reports ready. Spring Boot switches readiness to ACCEPTING_TRAFFIC only
+ * after all {@link ApplicationRunner}s returned, so the first real requests find an open connection pool,
+ * prepared statements, loaded Jackson serializers and JIT-compiled request paths.
+ * A failing step is logged and skipped, warm-up never keeps the application from starting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final long MISSING_ID = -1L;
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<EmployeeListSnapshot> employeeListSnapshot;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<AdmissionControlFilter> admissionControlFilter;
+
+    private final int connections;
+    private final int iterations;
+    private final int listIterations;
+
+    private volatile long durationMillis;
+
+    public WarmupRunner(ApplicationContext applicationContext, DataSource dataSource,
+                        EmployeeRepository employeeRepository,
+                        ObjectMapper objectMapper, ObjectProvider<EmployeeListSnapshot> employeeListSnapshot,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        ObjectProvider<AdmissionControlFilter> admissionControlFilter,
+                        @Value("${employee.warmup.connections:10}") int connections,
+                        @Value("${employee.warmup.iterations:200}") int iterations,
+                        @Value("${employee.warmup.list-iterations:10}") int listIterations) {
+        this.applicationContext = applicationContext;
+        this.dataSource = dataSource;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+        this.employeeListSnapshot = employeeListSnapshot;
+        this.meterRegistry = meterRegistry;
+        this.admissionControlFilter = admissionControlFilter;
+        this.connections = connections;
+        this.iterations = iterations;
+        this.listIterations = listIterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long poolMillis = step("connection pool", this::openConnections);
+        long repositoryMillis = step("repository queries", this::exerciseRepository);
+        long jacksonMillis = step("Jackson serializers", this::exerciseJackson);
+        long httpMillis = step("HTTP endpoints", this::exerciseEndpoints);
+        long snapshotMillis = step("list snapshot", this::buildListSnapshot);
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info("Warm-up finished in {} ms (pool {} ms, repository {} ms, jackson {} ms, http {} ms, "
+                        + "list snapshot {} ms)",
+                durationMillis, poolMillis, repositoryMillis, jacksonMillis, httpMillis, snapshotMillis);
+        meterRegistry.ifAvailable(registry -> TimeGauge.builder("employee.warmup.duration", this,
+                        TimeUnit.MILLISECONDS, WarmupRunner::getDurationMillis)
+                .description("Time spent warming up before reporting ready")
+                .register(registry));
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    private long step(String name, WarmupStep step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.warn("Warm-up of {} failed, continuing without it", name, e);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    // Holding several connections at once makes the pool open them now instead of on the first requests
+    private void openConnections() throws SQLException {
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+    }
+
+    private void exerciseRepository() {
+        for (int i = 0; i < iterations; i++) {
+            employeeRepository.findById(MISSING_ID);
+            employeeRepository.findByEmail("warmup@invalid");
+            employeeRepository.findAllById(List.of(MISSING_ID, MISSING_ID - 1));
+            employeeRepository.findByFirstNameAndLastNameCustom("warmup", "warmup");
+            employeeRepository.findAll(PageRequest.of(0, 1));
+        }
+        // the full list is the hottest query but also scales with the table, so it runs fewer times
+        for (int i = 0; i < listIterations; i++) {
+            employeeRepository.findAll();
+        }
+    }
+
+    private void exerciseJackson() throws Exception {
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Warm").lastName("Up").email("warmup@invalid").build());
+        for (int i = 0; i < iterations; i++) {
+            byte[] json = objectMapper.writeValueAsBytes(employees);
+            objectMapper.readValue(json, new TypeReference<List<Employee>>() {
+            });
+        }
+    }
+
+    // Only read endpoints, warm-up must never change data.
+    // The requests pass admission control; cold, sequential requests would only teach it a too small read limit,
+    // so the limits start over from their initial values afterwards
+    private void exerciseEndpoints() {
+        if (!(applicationContext instanceof WebServerApplicationContext webContext)) {
+            return;
+        }
+        RestClient client = RestClient.create("http://localhost:" + webContext.getWebServer().getPort());
+        try {
+            for (int i = 0; i < iterations; i++) {
+                get(client, "/api/employee/" + MISSING_ID);
+                get(client, "/api/employee?ids=" + MISSING_ID + "," + (MISSING_ID - 1));
+                get(client, "/api/employee/stats");
+            }
+            for (int i = 0; i < listIterations; i++) {
+                get(client, "/api/employee");
+            }
+        } finally {
+            admissionControlFilter.ifAvailable(AdmissionControlFilter::resetLimits);
+        }
+    }
+
+    // The list snapshot is the only pre-built response there is, employee reads have no cache to preload
+    private void buildListSnapshot() {
+        employeeListSnapshot.ifAvailable(EmployeeListSnapshot::rebuild);
+    }
+
+    private static void get(RestClient client, String uri) {
+        client.get().uri(uri).exchange((request, response) -> response.getStatusCode());
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
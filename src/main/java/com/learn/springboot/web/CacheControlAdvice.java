@@ -0,0 +1,46 @@
+package com.learn.springboot.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@link CacheControlPolicies} header to successful response bodies. Applied at body write time rather
+ * than up front so that errors, empty 404s and rejected requests are never marked cacheable.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class CacheControlAdvice implements ResponseBodyAdvice<Object> {
+
+    // a provider so web slice tests, which skip plain components, still start
+    private final ObjectProvider<CacheControlPolicies> cacheControlPolicies;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && HttpStatusCode.valueOf(servletResponse.getServletResponse().getStatus()).is2xxSuccessful()
+                && !response.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL)) {
+            cacheControlPolicies.ifAvailable(policies -> policies.headerFor(servletRequest.getServletRequest())
+                    .ifPresent(header -> response.getHeaders().set(HttpHeaders.CACHE_CONTROL, header)));
+        }
+        return body;
+    }
+}
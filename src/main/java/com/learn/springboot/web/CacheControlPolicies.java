@@ -0,0 +1,57 @@
+package com.learn.springboot.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache-Control policy of every read endpoint. Reads may be served from a cache for a short {@code max-age} and
+ * revalidated in the background for {@code stale-while-revalidate} longer. The change feed sets its own
+ * {@code no-store} in the controller, body advice never runs for a streamed response. Only GET and HEAD get a
+ * policy, the first matching pattern wins.
+ */
+@Component
+public class CacheControlPolicies {
+
+    private final boolean enabled;
+    private final List<Policy> policies;
+
+    public CacheControlPolicies(@Value("${employee.cache-control.enabled:true}") boolean enabled,
+                                @Value("${employee.cache-control.read.max-age-seconds:5}") long readMaxAge,
+                                @Value("${employee.cache-control.read.stale-while-revalidate-seconds:30}") long readStale,
+                                @Value("${employee.cache-control.stats.max-age-seconds:30}") long statsMaxAge,
+                                @Value("${employee.cache-control.stats.stale-while-revalidate-seconds:60}") long statsStale) {
+        this.enabled = enabled;
+        CacheControl read = CacheControl.maxAge(Duration.ofSeconds(readMaxAge))
+                .staleWhileRevalidate(Duration.ofSeconds(readStale));
+        CacheControl stats = CacheControl.maxAge(Duration.ofSeconds(statsMaxAge))
+                .staleWhileRevalidate(Duration.ofSeconds(statsStale));
+        this.policies = List.of(
+                new Policy(PathPatternParser.defaultInstance.parse("/api/employee/stats"), stats),
+                new Policy(PathPatternParser.defaultInstance.parse("/api/employee"), read),
+                new Policy(PathPatternParser.defaultInstance.parse("/api/employee/{id:\\d+}"), read));
+    }
+
+    public Optional<String> headerFor(HttpServletRequest request) {
+        if (!enabled || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return Optional.empty();
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return policies.stream()
+                .filter(policy -> policy.pattern().matches(path))
+                .findFirst()
+                .map(policy -> policy.cacheControl().getHeaderValue());
+    }
+
+    private record Policy(PathPattern pattern, CacheControl cacheControl) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.learn.springboot.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Makes {@code server.compression.min-response-size} apply to streamed responses. Tomcat only checks the threshold
+ * against a known Content-Length, and Jackson writes without one, so every JSON body was gzipped, even a single
+ * employee that only grows from it. Compressible bodies are held back until they pass the threshold: smaller ones
+ * are sent with their Content-Length and stay plain, larger ones stream on and are gzipped as before.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final int minResponseSize;
+    private final List<MimeType> mimeTypes;
+
+    public CompressionThresholdFilter(
+            @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${server.compression.mime-types:application/json}") String[] mimeTypes) {
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.mimeTypes = Arrays.stream(mimeTypes).map(MimeTypeUtils::parseMimeType).toList();
+    }
+
+    // without gzip in Accept-Encoding Tomcat never compresses, so there is nothing to hold back
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding == null || !acceptEncoding.contains("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ThresholdResponse thresholdResponse = new ThresholdResponse(response);
+        filterChain.doFilter(request, thresholdResponse);
+        if (request.isAsyncStarted()) {
+            // the body is written later from another thread, it cannot be held back until this filter returns
+            thresholdResponse.stopHolding();
+        } else {
+            thresholdResponse.finish();
+        }
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.equalsTypeAndSubtype(mimeType));
+    }
+
+    private final class ThresholdResponse extends HttpServletResponseWrapper {
+
+        private ByteArrayOutputStream held = new ByteArrayOutputStream();
+        private boolean decided;
+        private boolean passThrough;
+        private boolean lengthKnown;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private ThresholdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ThresholdOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            lengthKnown = true;
+            super.setContentLength(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            lengthKnown = true;
+            super.setContentLengthLong(len);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            lengthKnown |= HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            lengthKnown |= HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+            super.addHeader(name, value);
+        }
+
+        // a flush while holding the body back would commit it without a length
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (passThrough) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (!passThrough) {
+                held.reset();
+                decided = false;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            lengthKnown = false;
+            if (!passThrough) {
+                held.reset();
+                decided = false;
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!decided) {
+                decided = true;
+                // a known length or an encoding chosen by the application already settle compression
+                passThrough = lengthKnown || getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                        || !isCompressible(getContentType());
+            }
+            if (passThrough) {
+                getResponse().getOutputStream().write(bytes, offset, length);
+                return;
+            }
+            held.write(bytes, offset, length);
+            if (held.size() > minResponseSize) {
+                passThrough();
+            }
+        }
+
+        private void passThrough() throws IOException {
+            if (passThrough && held == null) {
+                return;
+            }
+            passThrough = true;
+            decided = true;
+            ByteArrayOutputStream bytes = held;
+            held = null;
+            if (bytes != null && bytes.size() > 0) {
+                bytes.writeTo(getResponse().getOutputStream());
+            }
+        }
+
+        private void stopHolding() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            passThrough();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (!passThrough && held != null && held.size() > 0) {
+                if (!isCommitted()) {
+                    super.setContentLength(held.size());
+                }
+                passThrough();
+            }
+        }
+
+        private final class ThresholdOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ThresholdResponse.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (passThrough) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                finish();
+                getResponse().getOutputStream().close();
+            }
+
+            @Override
+            public boolean isReady() {
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    passThrough();
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
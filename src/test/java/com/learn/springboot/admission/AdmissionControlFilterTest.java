@@ -0,0 +1,97 @@
+package com.learn.springboot.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter admissionControlFilter;
+
+    @BeforeEach
+    public void setup() {
+        // one read and one write slot, writes may wait up to 5 s for a slot
+        admissionControlFilter = new AdmissionControlFilter(1, 10, 1, 10, 1, 5000, 250, 0.5, 7);
+    }
+
+    @Test
+    @DisplayName("JUnit test for a read being rejected with 503 and Retry-After once the limit is reached")
+    public void givenReadLimitReached_whenRead_thenReturn503WithRetryAfter() throws Exception {
+        // given
+        admissionControlFilter.getReadLimiter().tryAcquire(0);
+        AtomicBoolean passed = new AtomicBoolean();
+
+        // when
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        admissionControlFilter.doFilter(new MockHttpServletRequest("GET", "/api/employee"), response,
+                (req, res) -> passed.set(true));
+
+        // then
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Assertions.assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        Assertions.assertThat(passed).isFalse();
+        Assertions.assertThat(admissionControlFilter.getReadLimiter().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("JUnit test for a write waiting for a slot instead of being rejected")
+    public void givenWriteLimitReached_whenSlotFreed_thenQueuedWritePasses() throws Exception {
+        // given
+        ConcurrencyLimiter writeLimiter = admissionControlFilter.getWriteLimiter();
+        writeLimiter.tryAcquire(0);
+        AtomicBoolean passed = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+            try {
+                admissionControlFilter.doFilter(new MockHttpServletRequest("PUT", "/api/employee/1"), response,
+                        (req, res) -> passed.set(true));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (writeLimiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        writeLimiter.release(0, false);
+        write.get(5, TimeUnit.SECONDS);
+
+        // then
+        Assertions.assertThat(passed).isTrue();
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        Assertions.assertThat(writeLimiter.getRejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("JUnit test for only backend failures, not the application's own 503s, shrinking the limit")
+    public void givenServerErrors_whenFiltered_thenOnlyNon503ErrorsBackOff() throws Exception {
+        // given
+        admissionControlFilter = new AdmissionControlFilter(8, 10, 1, 10, 1, 0, 250, 0.5, 1);
+
+        // when
+        admissionControlFilter.doFilter(new MockHttpServletRequest("GET", "/api/employee/changes"),
+                new MockHttpServletResponse(), respondWith(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        int afterOverload = admissionControlFilter.getReadLimiter().getLimit();
+        admissionControlFilter.doFilter(new MockHttpServletRequest("GET", "/api/employee"),
+                new MockHttpServletResponse(), respondWith(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+
+        // then
+        Assertions.assertThat(afterOverload).isEqualTo(8);
+        Assertions.assertThat(admissionControlFilter.getReadLimiter().getLimit()).isEqualTo(4);
+    }
+
+    private static FilterChain respondWith(int status) {
+        return (req, res) -> ((HttpServletResponse) res).setStatus(status);
+    }
+}
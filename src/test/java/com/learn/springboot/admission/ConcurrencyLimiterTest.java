@@ -0,0 +1,75 @@
+package com.learn.springboot.admission;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("JUnit test for fail fast rejection once the limit is reached")
+    public void givenLimitReached_whenTryAcquireWithoutWait_thenReject() throws Exception {
+        // given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("reads", new AimdLimit(2, 1, 10, 0.5, THRESHOLD), 0);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+
+        // when
+        boolean acquired = limiter.tryAcquire(0);
+
+        // then
+        Assertions.assertThat(acquired).isFalse();
+        Assertions.assertThat(limiter.getInflight()).isEqualTo(2);
+        Assertions.assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("JUnit test for queued acquire getting the slot of a finished request")
+    public void givenLimitReached_whenSlotReleased_thenQueuedRequestAcquires() throws Exception {
+        // given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("writes", new AimdLimit(1, 1, 10, 0.5, THRESHOLD), 1);
+        limiter.tryAcquire(0);
+
+        // when
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release(0, false);
+
+        // then
+        Assertions.assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(limiter.getRejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("JUnit test for AIMD limit growing under load and backing off on slow requests")
+    public void givenSamples_whenOnSample_thenLimitAdjusts() {
+        // given
+        AimdLimit limit = new AimdLimit(10, 1, 20, 0.5, THRESHOLD);
+
+        // when - then
+        limit.onSample(THRESHOLD / 2, 10, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(11);
+
+        limit.onSample(THRESHOLD / 2, 1, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(11);
+
+        limit.onSample(THRESHOLD * 2, 11, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(5);
+
+        limit.onSample(THRESHOLD / 2, 5, true);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.learn.springboot.benchmark;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.support.EmployeeFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Run with: mvn test -Dtest=EmployeeBatchGetBenchmark -Dbenchmark=true against MySQL, add -Ph2 to run it on an
+// in-memory H2 instead. H2 skips the network round trip, so it understates what the per-id path costs on MySQL.
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EmployeeBatchGetBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAllInBatch();
+        ids = employeeRepository.saveAll(EmployeeFixtures.numberedEmployees(EMPLOYEES)).stream()
+                .map(Employee::getId)
+                .toList();
+    }
+
+    @Test
+    public void comparePerIdLookupsWithBatchLookup() throws Exception {
+        String idsParam = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        // warm up both paths before measuring
+        perIdLookups();
+        batchLookup(idsParam);
+
+        long perIdNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            perIdLookups();
+            perIdNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            batchLookup(idsParam);
+            batchNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("Resolving %d ids : per-id %.1f ms, batch %.1f ms (avg of %d rounds)%n", EMPLOYEES,
+                perIdNanos / 1e6 / ROUNDS, batchNanos / 1e6 / ROUNDS, ROUNDS);
+    }
+
+    private void perIdLookups() throws Exception {
+        for (Long id : ids) {
+            mockMvc.perform(get("/api/employee/{id}", id)).andExpect(status().isOk());
+        }
+    }
+
+    private void batchLookup(String idsParam) throws Exception {
+        mockMvc.perform(get("/api/employee").param("ids", idsParam)).andExpect(status().isOk());
+    }
+}
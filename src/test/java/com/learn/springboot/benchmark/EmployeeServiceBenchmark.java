@@ -0,0 +1,120 @@
+package com.learn.springboot.benchmark;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.service.EmployeeService;
+import com.learn.springboot.sql.StatementCacheMetrics;
+import com.learn.springboot.support.EmployeeFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test -Dtest=EmployeeServiceBenchmark -Dbenchmark=true
+// and again with -Dspring.profiles.active=perf to compare the default setup with the perf profile. With -Ph2 only
+// the pool, Hibernate batching and SQL logging settings of the profile apply, the driver settings are MySQL only.
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EmployeeServiceBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<StatementCacheMetrics> statementCacheMetrics;
+
+    @Autowired
+    private Environment environment;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void measureEmployeeServiceOperations() {
+        // the first round warms the pool, statement caches and JIT and is not reported
+        for (int round = 0; round <= ROUNDS; round++) {
+            long[] nanos = runRound();
+            if (round > 0) {
+                report(round, nanos);
+            }
+        }
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            System.out.printf("Pool acquire : %d acquisitions, mean %.3f ms, max %.3f ms%n", acquire.count(),
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        }
+        statementCacheMetrics.ifAvailable(metrics -> {
+            metrics.sample();
+            System.out.printf("Statement cache hit ratio : %.3f%n", metrics.getHitRatio());
+        });
+    }
+
+    private long[] runRound() {
+        long[] nanos = new long[6];
+        List<Employee> saved = new ArrayList<>(EMPLOYEES);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            saved.add(employeeService.saveEmployee(EmployeeFixtures.numberedEmployee(i)));
+        }
+        nanos[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (Employee employee : saved) {
+            employeeService.getEmployeeById(employee.getId());
+        }
+        nanos[1] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        employeeService.getAllEmployees();
+        nanos[2] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (Employee employee : saved) {
+            employee.setFirstName("Renamed");
+            employeeService.updateEmployee(employee);
+        }
+        nanos[3] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        employeeService.updateEmployees(saved.stream()
+                .map(employee -> employee.toBuilder().lastName("Batched").build())
+                .toList());
+        nanos[4] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        employeeService.deleteEmployees(saved.stream().map(Employee::getId).toList());
+        nanos[5] = System.nanoTime() - start;
+        return nanos;
+    }
+
+    private void report(int round, long[] nanos) {
+        System.out.printf("Round %d %s, %d employees : save %.1f us/op, get by id %.1f us/op, get all %.1f ms, "
+                        + "update %.1f us/op, batch update %.1f us/row, batch delete %.1f us/row%n",
+                round, Arrays.toString(environment.getActiveProfiles()), EMPLOYEES,
+                nanos[0] / 1e3 / EMPLOYEES, nanos[1] / 1e3 / EMPLOYEES, nanos[2] / 1e6,
+                nanos[3] / 1e3 / EMPLOYEES, nanos[4] / 1e3 / EMPLOYEES, nanos[5] / 1e3 / EMPLOYEES);
+    }
+}
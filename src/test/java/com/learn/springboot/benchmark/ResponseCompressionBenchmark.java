@@ -0,0 +1,87 @@
+package com.learn.springboot.benchmark;
+
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.support.EmployeeFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+// Run with: mvn test -Dtest=ResponseCompressionBenchmark -Dbenchmark=true, add -Ph2 to run it without MySQL.
+// Server CPU is the CPU time of the connector's request threads only, the client in this JVM is not counted.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ResponseCompressionBenchmark {
+
+    private static final int[] LIST_SIZES = {1, 10, 100, 1000, 5000};
+    private static final int REQUESTS = 200;
+    private static final String REQUEST_THREAD_PREFIX = "http-nio-";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void measureBytesAndCpuPerRequest() throws Exception {
+        for (int size : LIST_SIZES) {
+            seed(size);
+            for (String encoding : List.of("identity", "gzip")) {
+                // warm up the path before measuring
+                measure(encoding, REQUESTS / 4);
+                long[] result = measure(encoding, REQUESTS);
+                System.out.printf("%5d employees, %-8s : %8d bytes on the wire, %7.1f us server CPU/request, "
+                                + "%7.1f us latency/request%n",
+                        size, encoding, result[0], result[1] / 1e3 / REQUESTS, result[2] / 1e3 / REQUESTS);
+            }
+        }
+    }
+
+    private void seed(int size) {
+        employeeRepository.deleteAllInBatch();
+        employeeRepository.saveAll(EmployeeFixtures.numberedEmployees(size));
+    }
+
+    // bytes of the last response body as sent, request thread CPU nanos and wall clock nanos of all requests
+    private long[] measure(String encoding, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employee"))
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+        long bytes = 0;
+        long cpuBefore = requestThreadCpuNanos();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            bytes = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[]{bytes, requestThreadCpuNanos() - cpuBefore, elapsed};
+    }
+
+    private long requestThreadCpuNanos() {
+        long total = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith(REQUEST_THREAD_PREFIX)) {
+                long cpu = threads.getThreadCpuTime(info.getThreadId());
+                if (cpu > 0) {
+                    total += cpu;
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -1,7 +1,11 @@
 package com.learn.springboot.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.springboot.dto.EmployeeBatchItemResult;
+import com.learn.springboot.dto.EmployeeBatchResult;
+import com.learn.springboot.dto.EmployeeBatchStatus;
 import com.learn.springboot.entity.Employee;
+import com.learn.springboot.exception.InvalidFieldsException;
 import com.learn.springboot.service.EmployeeService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
@@ -16,7 +20,9 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -111,6 +117,69 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @Test
+    @DisplayName("Junit for get Employees by ids REST API")
+    public void givenEmpIds_whenGetEmpsByIds_thenReturnFoundAndMissing() throws Exception {
+        // given
+        Employee employee = Employee.builder()
+                .id(2L)
+                .firstName("Sudhanshu")
+                .lastName("Arya")
+                .email("sarya@gmail.com")
+                .build();
+
+        BDDMockito.given(employeeService.getEmployeesByIds(List.of(2L, 5L)))
+                .willReturn(EmployeeBatchResult.builder()
+                        .employees(List.of(employee))
+                        .missingIds(List.of(5L))
+                        .build());
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employee").param("ids", "2,5"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.employees.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.employees[0].id", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.missingIds[0]", CoreMatchers.is(5)));
+    }
+
+    @Test
+    @DisplayName("Junit for get Employees with selected fields REST API")
+    public void givenFields_whenGetAllEmp_thenReturnOnlySelectedFields() throws Exception {
+        // given
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("email", "sarya@gmail.com");
+        BDDMockito.given(employeeService.getAllEmployees(List.of("id", "email"))).willReturn(List.of(row));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employee").param("fields", "id,email"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$[0].email", CoreMatchers.is("sarya@gmail.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Junit for get Employee by id with an unknown field REST API")
+    public void givenUnknownField_whenGetEmpById_thenReturn400() throws Exception {
+        // given
+        BDDMockito.given(employeeService.getEmployeeById(1L, List.of("salary")))
+                .willThrow(new InvalidFieldsException("Unknown fields [salary]"));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employee/{id}", 1L).param("fields", "salary"));
+
+        // then
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
     @Test
     @DisplayName("")
     public void givenInvalidEmpId_whenGetEmpById_thenReturnEmpty() throws Exception {
@@ -216,4 +285,27 @@ public class EmployeeControllerTests {
         response.andExpect(status().isNoContent())
                 .andDo(print());
     }
+
+    @Test
+    @DisplayName("Junit for batch update Employees REST API")
+    public void givenEmployeeBatch_whenUpdateEmployees_thenReturnStatusPerItem() throws Exception {
+        // given
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Ram").lastName("Arya").email("sarya@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Kapil").lastName("Kumar").email("kapil@gmail.com").build());
+        BDDMockito.given(employeeService.updateEmployees(any())).willReturn(List.of(
+                new EmployeeBatchItemResult(1L, EmployeeBatchStatus.UPDATED),
+                new EmployeeBatchItemResult(2L, EmployeeBatchStatus.NOT_FOUND)));
+
+        // when
+        ResultActions response = mockMvc.perform(put("/api/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].status", CoreMatchers.is("UPDATED")))
+                .andExpect(jsonPath("$[1].status", CoreMatchers.is("NOT_FOUND")));
+    }
 }
@@ -0,0 +1,81 @@
+package com.learn.springboot.feed;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeChangeType;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class EmployeeChangeFeedTest {
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    @BeforeEach
+    public void setup() {
+        employeeChangeFeed = new EmployeeChangeFeed(4, 16, 10, 60_000, 3_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeChangeFeed.shutdown();
+    }
+
+    @Test
+    @DisplayName("JUnit test for resuming the change feed from a retained sequence")
+    public void givenPublishedChanges_whenChangesAfter_thenReturnOnlyMissedChanges() {
+        // given
+        publish(EmployeeChangeType.CREATED, 1L);
+        publish(EmployeeChangeType.UPDATED, 1L);
+        publish(EmployeeChangeType.DELETED, 1L);
+
+        // when
+        List<EmployeeChange> changes = employeeChangeFeed.changesAfter(1L);
+
+        // then
+        Assertions.assertThat(changes).extracting(EmployeeChange::getSequence).containsExactly(2L, 3L);
+        Assertions.assertThat(changes).extracting(EmployeeChange::getType)
+                .containsExactly(EmployeeChangeType.UPDATED, EmployeeChangeType.DELETED);
+        Assertions.assertThat(employeeChangeFeed.changesAfter(3L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("JUnit test for resuming the change feed from an overwritten sequence")
+    public void givenRingBufferWrapped_whenChangesAfterOverwrittenSequence_thenReturnNull() {
+        // given
+        for (long id = 1; id <= 6; id++) {
+            publish(EmployeeChangeType.CREATED, id);
+        }
+
+        // when - then
+        Assertions.assertThat(employeeChangeFeed.changesAfter(1L)).isNull();
+        Assertions.assertThat(employeeChangeFeed.changesAfter(2L)).extracting(EmployeeChange::getSequence)
+                .containsExactly(3L, 4L, 5L, 6L);
+        Assertions.assertThat(employeeChangeFeed.getLastSequence()).isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("JUnit test for resuming the change feed with an event id from another boot or from the future")
+    public void givenForeignOrFutureEventId_whenChangesAfter_thenReturnNull() {
+        // given
+        publish(EmployeeChangeType.CREATED, 1L);
+        publish(EmployeeChangeType.UPDATED, 1L);
+
+        // when - then
+        Assertions.assertThat(employeeChangeFeed.changesAfter(employeeChangeFeed.eventId(1L)))
+                .extracting(EmployeeChange::getSequence).containsExactly(2L);
+        Assertions.assertThat(employeeChangeFeed.changesAfter("0000000-1")).isNull();
+        Assertions.assertThat(employeeChangeFeed.changesAfter("1")).isNull();
+        Assertions.assertThat(employeeChangeFeed.changesAfter(employeeChangeFeed.eventId(5L))).isNull();
+    }
+
+    private void publish(EmployeeChangeType type, long id) {
+        Employee employee = type == EmployeeChangeType.DELETED ? null
+                : Employee.builder().id(id).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build();
+        employeeChangeFeed.onEmployeeChanged(new EmployeeChangedEvent(type, id, employee));
+    }
+}
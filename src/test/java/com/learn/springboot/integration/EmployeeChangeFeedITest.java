@@ -0,0 +1,52 @@
+package com.learn.springboot.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// a real server, the stream has to reach the client before any employee changes
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EmployeeChangeFeedITest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Test for an idle change feed answering right away, uncached, with the reconnect delay")
+    public void givenIdleFeed_whenSubscribe_thenHeadersAndRetrySentRightAway() throws Exception {
+        // given
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employee/changes"))
+                .header("Last-Event-ID", "from-an-earlier-boot-42")
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        // when
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        // then
+        try (BufferedReader body = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            Assertions.assertThat(response.statusCode()).isEqualTo(200);
+            Assertions.assertThat(response.headers().firstValue("Cache-Control")).contains("no-store");
+            Assertions.assertThat(body.readLine()).isEqualTo("retry:3000");
+            Assertions.assertThat(body.readLine()).isEqualTo(":connected");
+            body.readLine();
+            // an id from another boot cannot be resumed
+            Assertions.assertThat(body.readLine()).isEqualTo("event:reset");
+        }
+    }
+}
@@ -3,14 +3,22 @@ package com.learn.springboot.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.learn.springboot.entity.Employee;
 import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.sql.QueryCount;
+import com.learn.springboot.sql.QueryCounter;
+import com.learn.springboot.support.QueryBudget;
+import com.learn.springboot.support.EmployeeFixtures;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -19,6 +27,9 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -26,19 +37,24 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "employee.sql.query-counting.enabled=true")
 @AutoConfigureMockMvc
 public class EmployeeControllerITest {
 
     @Autowired
     private MockMvc mockMvc;
 
-    @Autowired
+    // a spy, so one test can hold the query open while concurrent callers join it
+    @SpyBean
     private EmployeeRepository employeeRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
     @BeforeEach
     void setUp() {
         employeeRepository.deleteAll();
@@ -57,6 +73,7 @@ public class EmployeeControllerITest {
                 .build();
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(post("/api/employee")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
@@ -70,6 +87,9 @@ public class EmployeeControllerITest {
                 .andExpect(jsonPath("$.email",
                         CoreMatchers.is(employee.getEmail())))
                 .andDo(print());
+        // SELECT by email to reject duplicates, SELECT by id because the request carries an id and save() merges,
+        // then the INSERT and the outbox INSERT
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 2, 2, 0, 0);
     }
 
     @Test
@@ -83,12 +103,14 @@ public class EmployeeControllerITest {
         employeeRepository.saveAll(employeeList);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(get("/api/employee"));
 
         // then
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(print())
                 .andExpect(jsonPath("$.size()", CoreMatchers.is(employeeList.size())));
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
 
     }
 
@@ -107,6 +129,7 @@ public class EmployeeControllerITest {
         Employee savedEmp = employeeRepository.save(employee);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(get("/api/employee/{id}", savedEmp.getId()));
 
         // then
@@ -115,6 +138,62 @@ public class EmployeeControllerITest {
                 .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", CoreMatchers.is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Test for concurrent GETs of one employee sending one SELECT")
+    public void givenConcurrentCallers_whenGetEmpById_thenSingleSelect() throws Exception {
+        // given
+        Employee savedEmp = employeeRepository.save(Employee.builder()
+                .firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build());
+        int callers = 8;
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        // the repository is an interface proxy, its spy reaches the real query through the default answer
+        Answer<?> realQuery = Mockito.mockingDetails(employeeRepository).getMockCreationSettings().getDefaultAnswer();
+        BDDMockito.willAnswer(invocationOnMock -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return realQuery.answer(invocationOnMock);
+        }).given(employeeRepository).findById(savedEmp.getId());
+        // the counter is per thread, every caller reports what its own request sent
+        List<QueryCount> counts = new CopyOnWriteArrayList<>();
+        List<Integer> statuses = new CopyOnWriteArrayList<>();
+        Runnable lookup = () -> {
+            queryCounter.reset();
+            try {
+                statuses.add(mockMvc.perform(get("/api/employee/{id}", savedEmp.getId()))
+                        .andReturn().getResponse().getStatus());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            counts.add(queryCounter.snapshot());
+        };
+
+        // when
+        Thread leader = new Thread(lookup);
+        leader.start();
+        queryStarted.await(5, TimeUnit.SECONDS);
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 1; i < callers; i++) {
+            Thread follower = new Thread(lookup);
+            followers.add(follower);
+            follower.start();
+        }
+        while (followers.stream().anyMatch(follower -> follower.getState() != Thread.State.WAITING)) {
+            Thread.sleep(1);
+        }
+        releaseQuery.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        // then
+        Assertions.assertThat(statuses).hasSize(callers).containsOnly(200);
+        Assertions.assertThat(counts).hasSize(callers);
+        Assertions.assertThat(counts.stream().mapToInt(QueryCount::getSelects).sum()).isEqualTo(1);
     }
 
     @Test
@@ -131,10 +210,12 @@ public class EmployeeControllerITest {
         employeeRepository.save(employee);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(get("/api/employee/{id}", empId));
 
         // then
         response.andExpect(MockMvcResultMatchers.status().isNotFound());
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
 
     }
 
@@ -158,6 +239,7 @@ public class EmployeeControllerITest {
         Employee save = employeeRepository.save(savedEmployee);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(put("/api/employee/{id}", save.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updatedEmployee)));
@@ -168,6 +250,9 @@ public class EmployeeControllerITest {
                 .andExpect(jsonPath("$.firstName", CoreMatchers.is(updatedEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", CoreMatchers.is(updatedEmployee.getLastName())))
                 .andExpect(jsonPath("$.email", CoreMatchers.is(updatedEmployee.getEmail())));
+        // SELECT in the controller, SELECT in updateEmployee for the previous email (which also lets save() merge
+        // without another SELECT), then the UPDATE and the outbox INSERT
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 2, 1, 1, 0);
 
     }
 
@@ -191,12 +276,14 @@ public class EmployeeControllerITest {
         Employee save = employeeRepository.save(savedEmployee);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(put("/api/employee/{id}", 1L)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updatedEmployee)));
 
         // then
         response.andExpect(status().isNotFound());
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
     }
 
     @Test
@@ -211,11 +298,100 @@ public class EmployeeControllerITest {
         Employee savedEmp = employeeRepository.save(emp);
 
         // when
+        queryCounter.reset();
         ResultActions response = mockMvc.perform(delete("/api/employee/{id}", savedEmp.getId()));
 
         // then
         response.andExpect(status().isNoContent())
                 .andDo(print());
+        // the entity is loaded before it is removed, plus the outbox INSERT
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 1, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Test for get Employees by ids REST API")
+    public void givenEmpIds_whenGetEmpsByIds_thenSingleSelect() throws Exception {
+        // given
+        List<Employee> employeeList = EmployeeFixtures.numberedEmployees(5);
+        String ids = employeeRepository.saveAll(employeeList).stream()
+                .map(emp -> String.valueOf(emp.getId()))
+                .reduce((left, right) -> left + "," + right)
+                .get();
+
+        // when
+        queryCounter.reset();
+        ResultActions response = mockMvc.perform(get("/api/employee").param("ids", ids));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.size()", CoreMatchers.is(employeeList.size())));
+        // one IN query instead of a SELECT per id
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Test for get Employee by id with selected fields REST API")
+    public void givenFields_whenGetEmpById_thenReturnOnlySelectedFields() throws Exception {
+        // given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build());
+
+        // when
+        queryCounter.reset();
+        ResultActions response = mockMvc.perform(get("/api/employee/{id}", savedEmployee.getId())
+                .param("fields", "id,email"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", CoreMatchers.is(savedEmployee.getId().intValue())))
+                .andExpect(jsonPath("$.email", CoreMatchers.is(savedEmployee.getEmail())))
+                .andExpect(jsonPath("$.firstName").doesNotExist());
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Test for batch update and delete Employees REST API")
+    public void givenEmployeeBatch_whenUpdateAndDeleteEmployees_thenBatchedStatements() throws Exception {
+        // given
+        List<Employee> employeeList = EmployeeFixtures.numberedEmployees(5);
+        List<Employee> saved = employeeRepository.saveAll(employeeList);
+        List<Employee> changes = new ArrayList<>();
+        for (Employee employee : saved) {
+            changes.add(employee.toBuilder().firstName("Renamed").build());
+        }
+        changes.add(saved.get(1).toBuilder().email(saved.get(0).getEmail()).build());
+        changes.add(Employee.builder().id(-1L).firstName("Ghost").lastName("Ghost").email("ghost@gmail.com").build());
+
+        // when
+        queryCounter.reset();
+        ResultActions response = mockMvc.perform(put("/api/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(7)))
+                .andExpect(jsonPath("$[4].status", CoreMatchers.is("UPDATED")))
+                .andExpect(jsonPath("$[5].status", CoreMatchers.is("EMAIL_CONFLICT")))
+                .andExpect(jsonPath("$[6].status", CoreMatchers.is("NOT_FOUND")));
+        // two lookups, one batched UPDATE and one batched outbox INSERT
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 2, 1, 1, 0);
+        Assertions.assertThat(employeeRepository.findAll())
+                .extracting(Employee::getFirstName).containsOnly("Renamed");
+
+        // when
+        queryCounter.reset();
+        response = mockMvc.perform(delete("/api/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(saved.get(0).getId(), saved.get(1).getId(), -1L))));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", CoreMatchers.is("DELETED")))
+                .andExpect(jsonPath("$[1].status", CoreMatchers.is("DELETED")))
+                .andExpect(jsonPath("$[2].status", CoreMatchers.is("NOT_FOUND")));
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 1, 0, 1);
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(3);
     }
 
 }
@@ -0,0 +1,122 @@
+package com.learn.springboot.integration;
+
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.entity.OutboxEvent;
+import com.learn.springboot.exception.EmailAlreadyExistException;
+import com.learn.springboot.outbox.InMemoryOutboxSink;
+import com.learn.springboot.outbox.OutboxRelay;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.repo.OutboxEventRepository;
+import com.learn.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+
+// the scheduled poll is pushed far out so the tests decide when the relay runs
+@SpringBootTest(properties = {
+        "employee.outbox.sink=in-memory",
+        "employee.outbox.relay.enabled=true",
+        "employee.outbox.relay.batch-size=2",
+        "employee.outbox.relay.poll-interval-ms=3600000"
+})
+public class OutboxRelayITest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink inMemoryOutboxSink;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll();
+        outboxEventRepository.deleteAllInBatch();
+        inMemoryOutboxSink.clear();
+    }
+
+    @Test
+    @DisplayName("Test for outbox rows being relayed in batches and pruned")
+    public void givenEmployeeWrites_whenRelay_thenEventsPublishedAndOutboxEmpty() {
+        // given
+        Employee saved = employeeService.saveEmployee(Employee.builder()
+                .firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build());
+        saved.setFirstName("Ram");
+        employeeService.updateEmployee(saved);
+        employeeService.deleteEmployee(saved.getId());
+        Assertions.assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        // when
+        int published = outboxRelay.relay();
+
+        // then
+        Assertions.assertThat(published).isEqualTo(3);
+        Assertions.assertThat(inMemoryOutboxSink.getPublished()).extracting(OutboxEvent::getEventType)
+                .containsExactly("CREATED", "UPDATED", "DELETED");
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test for a rejected write leaving no outbox row")
+    public void givenDuplicateEmail_whenSaveEmployee_thenNoOutboxRow() {
+        // given
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build());
+
+        // when
+        org.junit.jupiter.api.Assertions.assertThrows(EmailAlreadyExistException.class, () ->
+                employeeService.saveEmployee(Employee.builder()
+                        .firstName("Kapil").lastName("Kumar").email("sarya@gmail.com").build()));
+
+        // then
+        Assertions.assertThat(outboxEventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test for deleting an unknown employee leaving no outbox row")
+    public void givenUnknownId_whenDeleteEmployee_thenNoOutboxRow() {
+        // when
+        employeeService.deleteEmployee(-1L);
+
+        // then
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test for batch writes recording one outbox row per changed employee")
+    public void givenEmployeeBatch_whenUpdateAndDeleteEmployees_thenOutboxRowPerChange() {
+        // given
+        List<Employee> saved = employeeRepository.saveAll(List.of(
+                Employee.builder().firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build(),
+                Employee.builder().firstName("Kapil").lastName("Kumar").email("kkumar@gmail.com").build()));
+        saved.forEach(employee -> employee.setFirstName("Ram"));
+
+        // when
+        employeeService.updateEmployees(saved);
+        employeeService.deleteEmployees(List.of(saved.get(0).getId(), -1L));
+
+        // then
+        List<OutboxEvent> recorded = outboxEventRepository.findAll(Sort.by("id"));
+        Assertions.assertThat(recorded).extracting(OutboxEvent::getEventType)
+                .containsExactly("UPDATED", "UPDATED", "DELETED");
+        Assertions.assertThat(recorded).extracting(OutboxEvent::getEmployeeId)
+                .containsExactly(saved.get(0).getId(), saved.get(1).getId(), saved.get(0).getId());
+        Assertions.assertThat(recorded).allSatisfy(event -> Assertions.assertThat(event.getCreatedAt())
+                .isBetween(Instant.now().minusSeconds(60), Instant.now()));
+    }
+}
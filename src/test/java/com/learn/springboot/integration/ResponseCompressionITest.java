@@ -0,0 +1,92 @@
+package com.learn.springboot.integration;
+
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.support.EmployeeFixtures;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+// a real server, MockMvc bypasses the connector that does the compression
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResponseCompressionITest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll();
+        employeeRepository.saveAll(EmployeeFixtures.numberedEmployees(100));
+    }
+
+    @Test
+    @DisplayName("Test for the employee list being gzipped and cacheable for a short time")
+    public void givenAcceptGzip_whenGetAllEmp_thenCompressedAndCacheable() throws Exception {
+        // when
+        HttpResponse<byte[]> plain = get("/api/employee", "identity");
+        HttpResponse<byte[]> gzipped = get("/api/employee", "gzip");
+
+        // then
+        Assertions.assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        Assertions.assertThat(gzipped.headers().firstValue("Content-Encoding")).contains("gzip");
+        Assertions.assertThat(gzipped.body().length).isLessThan(plain.body().length / 3);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            Assertions.assertThat(gzip.readAllBytes()).isEqualTo(plain.body());
+        }
+        Assertions.assertThat(gzipped.headers().firstValue("Cache-Control"))
+                .contains("max-age=5, stale-while-revalidate=30");
+    }
+
+    @Test
+    @DisplayName("Test for a single employee below the size threshold not being gzipped")
+    public void givenAcceptGzip_whenGetEmpById_thenNotCompressed() throws Exception {
+        // given
+        Long id = employeeRepository.findAll().get(0).getId();
+
+        // when
+        HttpResponse<byte[]> response = get("/api/employee/" + id, "gzip");
+
+        // then
+        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+        Assertions.assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        Assertions.assertThat(response.headers().firstValueAsLong("Content-Length"))
+                .hasValue(response.body().length);
+        Assertions.assertThat(new String(response.body(), StandardCharsets.UTF_8)).contains("\"id\":" + id);
+    }
+
+    @Test
+    @DisplayName("Test for a missing employee not being marked cacheable")
+    public void givenInvalidEmpId_whenGetEmpById_thenNoCacheControl() throws Exception {
+        // when
+        HttpResponse<byte[]> response = get("/api/employee/-1", "gzip");
+
+        // then
+        Assertions.assertThat(response.statusCode()).isEqualTo(404);
+        Assertions.assertThat(response.headers().firstValue("Cache-Control")).isEmpty();
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
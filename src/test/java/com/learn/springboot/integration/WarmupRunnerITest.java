@@ -0,0 +1,46 @@
+package com.learn.springboot.integration;
+
+import com.learn.springboot.admission.AdmissionControlFilter;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.warmup.WarmupRunner;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "employee.warmup.enabled=true",
+        "employee.warmup.iterations=2",
+        "employee.warmup.list-iterations=2",
+        // every warm-up request counts as slow and cuts the limit
+        "employee.admission.latency-threshold-ms=0",
+        "employee.admission.read.initial-limit=20"
+})
+public class WarmupRunnerITest {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Test
+    @DisplayName("Test for warm-up running before the application reports ready")
+    public void givenWarmupEnabled_whenApplicationStarted_thenWarmedUpAndReady() {
+        Assertions.assertThat(warmupRunner.getDurationMillis()).isPositive();
+        Assertions.assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        // warm-up only reads
+        Assertions.assertThat(employeeRepository.findById(-1L)).isEmpty();
+        // the cold warm-up requests leave no mark on the admission limits
+        Assertions.assertThat(admissionControlFilter.getReadLimiter().getLimit()).isEqualTo(20);
+    }
+}
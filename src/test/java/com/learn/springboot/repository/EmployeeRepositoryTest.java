@@ -1,23 +1,35 @@
 package com.learn.springboot.repository;
 
 import com.learn.springboot.entity.Employee;
+import com.learn.springboot.exception.InvalidFieldsException;
 import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.repo.EmployeeStatsView;
+import com.learn.springboot.sql.DataSourceProxyConfig;
+import com.learn.springboot.sql.QueryCounter;
+import com.learn.springboot.support.QueryBudget;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "employee.sql.query-counting.enabled=true")
+@Import(DataSourceProxyConfig.class)
 class EmployeeRepositoryTest {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
     @Test
     @DisplayName("Junit test for save employee operation")
     public void givenEmployeeObject_whenSave_thenReturnSavedEmployee() {
@@ -30,11 +42,14 @@ class EmployeeRepositoryTest {
                 .build();
 
         // when - action or Behaviour that we are going to test
+        queryCounter.reset();
         Employee savedEmployee = employeeRepository.save(employee);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
         assertThat(savedEmployee.getId()).isGreaterThan(0);
+        // IDENTITY ids make Hibernate insert right away instead of at flush time
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 0, 1, 0, 0);
     }
 
     @Test
@@ -57,11 +72,13 @@ class EmployeeRepositoryTest {
         Employee emp2 = employeeRepository.save(employee2);
 
         // when
+        queryCounter.reset();
         List<Employee> employeeList = employeeRepository.findAll();
 
         // then
         assertThat(employeeList).isNotNull();
         assertThat(employeeList.size()).isEqualTo(2);
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
     }
 
     @Test
@@ -77,10 +94,13 @@ class EmployeeRepositoryTest {
         Employee savedEmp = employeeRepository.save(employee1);
 
         // when
+        queryCounter.reset();
         Employee employeeDB = employeeRepository.findById(savedEmp.getId()).get();
 
         // then
         assertThat(employeeDB).isNotNull();
+        // served from the persistence context of the test transaction
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 0, 0, 0, 0);
     }
 
     @Test
@@ -96,11 +116,13 @@ class EmployeeRepositoryTest {
         employeeRepository.save(employee);
 
         // when
+        queryCounter.reset();
         Employee employeeDB = employeeRepository.findByEmail(employee.getEmail()).get();
 
         // then
         assertThat(employeeDB).isNotNull();
         assertThat(employeeDB.getFirstName()).isEqualTo(employee.getFirstName());
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
     }
 
     @Test
@@ -156,10 +178,71 @@ class EmployeeRepositoryTest {
         String lastName = "Arya";
 
         // when
+        queryCounter.reset();
         Employee savedEmp = employeeRepository.findByFirstNameAndLastNameCustom(firstName, lastName).get();
 
         // then
         assertThat(savedEmp).isNotNull();
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Junit test for reading only the requested employee columns")
+    public void givenFields_whenFindAllProjected_thenOnlyRequestedColumnsSelected() {
+        // given
+        Employee employee = Employee.builder()
+                .firstName("Sudhanshu")
+                .lastName("Arya")
+                .email("sarya@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+
+        // when
+        queryCounter.reset();
+        List<Map<String, Object>> rows = employeeRepository.findAllProjected(List.of("email", "id"));
+
+        // then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(
+                Map.entry("email", "sarya@gmail.com"), Map.entry("id", employee.getId()));
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+        assertThat(queryCounter.snapshot().getSelectExecutions().keySet())
+                .allSatisfy(sql -> assertThat(sql).doesNotContain("first_name", "last_name"));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Junit test for unknown fields being rejected before querying")
+    public void givenUnknownField_whenFindProjectedById_thenThrowsInvalidFieldsException() {
+        // when
+        queryCounter.reset();
+        assertThatThrownBy(() -> employeeRepository.findProjectedById(1L, List.of("email", "salary")))
+                .isInstanceOf(InvalidFieldsException.class)
+                .hasMessageContaining("salary");
+
+        // then
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Junit test for reading only the columns the statistics are keyed on")
+    public void givenEmployee_whenFindAllStatsViews_thenOnlyKeyColumnsSelected() {
+        // given
+        Employee employee = Employee.builder()
+                .firstName("Sudhanshu")
+                .lastName("Arya")
+                .email("sarya@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+
+        // when
+        queryCounter.reset();
+        List<EmployeeStatsView> views = employeeRepository.findAllStatsViewsBy();
+
+        // then
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getLastName()).isEqualTo("Arya");
+        QueryBudget.assertQueryBudget(queryCounter.snapshot(), 1, 0, 0, 0);
+        assertThat(queryCounter.snapshot().getSelectExecutions().keySet())
+                .allSatisfy(sql -> assertThat(sql).doesNotContain("first_name"));
+    }
+}
@@ -1,7 +1,13 @@
 package com.learn.springboot.service;
 
+import com.learn.springboot.dto.EmployeeBatchItemResult;
+import com.learn.springboot.dto.EmployeeBatchResult;
+import com.learn.springboot.dto.EmployeeBatchStatus;
 import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeBatchChangedEvent;
+import com.learn.springboot.event.EmployeeChangedEvent;
 import com.learn.springboot.exception.EmailAlreadyExistException;
+import com.learn.springboot.repo.EmployeeBatchRepository;
 import com.learn.springboot.repo.EmployeeRepository;
 import com.learn.springboot.service.impl.EmployeeServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -14,10 +20,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
@@ -25,6 +44,15 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeBatchRepository employeeBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -124,6 +152,25 @@ public class EmployeeServiceTest {
         Assertions.assertThat(savedEmployee).isNotNull();
     }
 
+    @Test
+    @DisplayName("JUnit test for getEmployeesByIds method")
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestOrder() {
+        // given
+        ReflectionTestUtils.setField(employeeService, "maxInListSize", 2);
+        Employee employee3 = Employee.builder().id(3L).firstName("Ajay").lastName("Kumar").email("ajay@gmail.com").build();
+        BDDMockito.given(employeeRepository.findAllById(List.of(3L, 1L))).willReturn(List.of(employee, employee3));
+        BDDMockito.given(employeeRepository.findAllById(List.of(2L))).willReturn(Collections.emptyList());
+
+        // when
+        EmployeeBatchResult result = employeeService.getEmployeesByIds(List.of(3L, 1L, 3L, 2L));
+
+        // then
+        Assertions.assertThat(result.getEmployees()).extracting(Employee::getId).containsExactly(3L, 1L);
+        Assertions.assertThat(result.getMissingIds()).containsExactly(2L);
+        Mockito.verify(employeeRepository, Mockito.times(2)).findAllById(Mockito.anyIterable());
+        Mockito.verify(employeeRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
     @Test
     @DisplayName("Junit for Update Employee method")
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
@@ -145,12 +192,163 @@ public class EmployeeServiceTest {
     public void givenEmployeeId_whenDeleteEmployee_thenDoNothing() {
         // given
         long empId = 1L;
-        BDDMockito.willDoNothing().given(employeeRepository).deleteById(1L);
+        BDDMockito.given(employeeRepository.findById(empId)).willReturn(Optional.of(employee));
+        BDDMockito.willDoNothing().given(employeeRepository).delete(employee);
 
         // when
         employeeService.deleteEmployee(empId);
 
         // then
-        Mockito.verify(employeeRepository, Mockito.times(1)).deleteById(empId);
+        Mockito.verify(employeeRepository, Mockito.times(1)).delete(employee);
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(EmployeeChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Junit for deleteEmployee method with an unknown id")
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenNoChangePublished() {
+        // given
+        BDDMockito.given(employeeRepository.findById(999L)).willReturn(Optional.empty());
+
+        // when
+        employeeService.deleteEmployee(999L);
+
+        // then
+        Mockito.verify(employeeRepository, Mockito.never()).delete(Mockito.any(Employee.class));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("JUnit test for concurrent getEmployeeById calls sharing one query")
+    public void givenConcurrentCallers_whenGetEmployeeById_thenQueryDatabaseOnce() throws Exception {
+        // given
+        int callers = 8;
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        BDDMockito.given(employeeRepository.findById(1L)).willAnswer(invocationOnMock -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(employee);
+        });
+        List<Employee> results = new CopyOnWriteArrayList<>();
+        Runnable lookup = () -> results.add(employeeService.getEmployeeById(1L).get());
+
+        // when
+        Thread leader = new Thread(lookup);
+        leader.start();
+        queryStarted.await(5, TimeUnit.SECONDS);
+
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 1; i < callers; i++) {
+            Thread follower = new Thread(lookup);
+            followers.add(follower);
+            follower.start();
+        }
+        // Followers park on the leader's in-flight call before the query is allowed to finish
+        while (followers.stream().anyMatch(follower -> follower.getState() != Thread.State.WAITING)) {
+            Thread.sleep(1);
+        }
+        releaseQuery.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        // then
+        Mockito.verify(employeeRepository, Mockito.times(1)).findById(1L);
+        Assertions.assertThat(results).hasSize(callers);
+        Assertions.assertThat(results).extracting(Employee::getEmail).containsOnly(employee.getEmail());
+        Assertions.assertThat(results.stream().distinct()).hasSize(callers);
+    }
+
+    @Test
+    @DisplayName("JUnit test for in-flight lookups being dropped only after the write commits")
+    public void givenInFlightLookup_whenUpdateEmployeeCommits_thenLaterLookupsQueryAgain() throws Exception {
+        // given
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        BDDMockito.given(employeeRepository.findById(1L)).willAnswer(invocationOnMock -> {
+            if (queryStarted.getCount() > 0) {
+                queryStarted.countDown();
+                releaseQuery.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.of(employee);
+        });
+        BDDMockito.given(employeeRepository.save(employee)).willReturn(employee);
+        Thread leader = new Thread(() -> employeeService.getEmployeeById(1L));
+        leader.start();
+        queryStarted.await(5, TimeUnit.SECONDS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            employeeService.updateEmployee(employee);
+            // still uncommitted, so joining the in-flight lookup is fine
+            Thread beforeCommit = new Thread(() -> employeeService.getEmployeeById(1L));
+            beforeCommit.start();
+            while (beforeCommit.getState() != Thread.State.WAITING
+                    && beforeCommit.getState() != Thread.State.TERMINATED) {
+                Thread.sleep(1);
+            }
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            employeeService.getEmployeeById(1L);
+
+            releaseQuery.countDown();
+            leader.join();
+            beforeCommit.join();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then - the leader, updateEmployee and the lookup after the commit, the joined caller issued no query
+        Mockito.verify(employeeRepository, Mockito.times(3)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("JUnit test for updateEmployees method reporting a status per item")
+    public void givenEmployeeBatch_whenUpdateEmployees_thenReturnStatusPerItem() {
+        // given
+        Employee renamed = employee.toBuilder().firstName("Ram").build();
+        Employee conflicting = Employee.builder().id(2L).firstName("Kapil").lastName("Kumar").email("sarya@gmail.com").build();
+        Employee missing = Employee.builder().id(3L).firstName("Shyam").lastName("Kumar").email("shyam@gmail.com").build();
+        Employee invalid = Employee.builder().id(4L).firstName("Mohan").build();
+        BDDMockito.given(transactionTemplate.execute(BDDMockito.any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        BDDMockito.given(employeeBatchRepository.findEmailsByIds(List.of(1L, 2L, 3L, 4L)))
+                .willReturn(new HashMap<>(Map.of(1L, "sarya@gmail.com", 2L, "kapil@gmail.com")));
+        BDDMockito.given(employeeBatchRepository.findIdsByEmails(List.of("sarya@gmail.com", "shyam@gmail.com")))
+                .willReturn(new HashMap<>(Map.of("sarya@gmail.com", 1L)));
+        BDDMockito.given(employeeBatchRepository.updateAll(List.of(renamed))).willReturn(new int[]{1});
+
+        // when
+        List<EmployeeBatchItemResult> results = employeeService.updateEmployees(
+                Arrays.asList(renamed, conflicting, missing, invalid, null));
+
+        // then
+        Assertions.assertThat(results).extracting(EmployeeBatchItemResult::getStatus).containsExactly(
+                EmployeeBatchStatus.UPDATED, EmployeeBatchStatus.EMAIL_CONFLICT,
+                EmployeeBatchStatus.NOT_FOUND, EmployeeBatchStatus.INVALID, EmployeeBatchStatus.INVALID);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(BDDMockito.any(EmployeeBatchChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for deleteEmployees method deleting in chunks")
+    public void givenEmployeeIds_whenDeleteEmployees_thenDeleteEachChunkInItsOwnTransaction() {
+        // given
+        ReflectionTestUtils.setField(employeeService, "maxInListSize", 2);
+        BDDMockito.given(transactionTemplate.execute(BDDMockito.any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        BDDMockito.given(employeeBatchRepository.findEmailsByIds(List.of(1L, 2L)))
+                .willReturn(Map.of(1L, "sarya@gmail.com", 2L, "kapil@gmail.com"));
+        BDDMockito.given(employeeBatchRepository.findEmailsByIds(List.of(3L))).willReturn(Map.of());
+        BDDMockito.given(employeeBatchRepository.deleteAllById(List.of(1L, 2L))).willReturn(new int[]{1, 1});
+        BDDMockito.given(employeeBatchRepository.deleteAllById(List.of())).willReturn(new int[0]);
+
+        // when
+        List<EmployeeBatchItemResult> results = employeeService.deleteEmployees(List.of(1L, 2L, 3L));
+
+        // then
+        Assertions.assertThat(results).extracting(EmployeeBatchItemResult::getStatus).containsExactly(
+                EmployeeBatchStatus.DELETED, EmployeeBatchStatus.DELETED, EmployeeBatchStatus.NOT_FOUND);
+        Mockito.verify(transactionTemplate, Mockito.times(2)).execute(BDDMockito.any());
     }
 }
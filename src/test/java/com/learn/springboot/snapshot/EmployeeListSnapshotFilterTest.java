@@ -0,0 +1,22 @@
+package com.learn.springboot.snapshot;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeListSnapshotFilterTest {
+
+    @Test
+    @DisplayName("JUnit test for choosing the gzipped snapshot from the Accept-Encoding q-values")
+    public void givenAcceptEncoding_whenAcceptsGzip_thenHonourQualityValues() {
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("gzip, deflate, br")).isTrue();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("*")).isTrue();
+
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip(null)).isFalse();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("identity")).isFalse();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("gzip;q=0")).isFalse();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("deflate, gzip ; q=0.000")).isFalse();
+        Assertions.assertThat(EmployeeListSnapshotFilter.acceptsGzip("*;q=1, gzip;q=0")).isFalse();
+    }
+}
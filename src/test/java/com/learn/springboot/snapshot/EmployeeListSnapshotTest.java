@@ -0,0 +1,110 @@
+package com.learn.springboot.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeChangeType;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeListSnapshotTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeeListSnapshot employeeListSnapshot;
+
+    private List<Employee> employeeList;
+
+    @BeforeEach
+    public void setup() {
+        // long debounce and max age so only the explicit rebuild() calls below build the snapshot
+        employeeListSnapshot = new EmployeeListSnapshot(employeeService, objectMapper, 60_000, 60_000);
+        employeeList = List.of(
+                Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Kapil").lastName("Kumar").email("kapil@gmail.com").build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeListSnapshot.shutdown();
+    }
+
+    @Test
+    @DisplayName("JUnit test for the snapshot holding the plain and gzipped JSON of the list")
+    public void givenEmployeeList_whenRebuild_thenSnapshotHoldsSerializedList() throws Exception {
+        // given
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(employeeList);
+
+        // when
+        employeeListSnapshot.rebuild();
+        EmployeeListSnapshot.Snapshot snapshot = employeeListSnapshot.current();
+
+        // then
+        byte[] expected = objectMapper.writeValueAsBytes(employeeList);
+        Assertions.assertThat(snapshot).isNotNull();
+        Assertions.assertThat(snapshot.getEmployeeCount()).isEqualTo(2);
+        Assertions.assertThat(toBytes(snapshot.json())).isEqualTo(expected);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(toBytes(snapshot.gzippedJson())))) {
+            Assertions.assertThat(gzip.readAllBytes()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test for a write making the snapshot stale until it is rebuilt")
+    public void givenSnapshot_whenEmployeeChanged_thenSnapshotIsStaleUntilRebuilt() {
+        // given
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(employeeList);
+        employeeListSnapshot.rebuild();
+
+        // when
+        employeeListSnapshot.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.DELETED, 2L, null));
+
+        // then
+        Assertions.assertThat(employeeListSnapshot.current()).isNull();
+        employeeListSnapshot.rebuild();
+        Assertions.assertThat(employeeListSnapshot.current()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("JUnit test for a snapshot older than the max age not being served")
+    public void givenOldSnapshot_whenCurrent_thenNotServed() throws Exception {
+        // given
+        EmployeeListSnapshot shortLived = new EmployeeListSnapshot(employeeService, objectMapper, 60_000, 20);
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(employeeList);
+        try {
+            shortLived.rebuild();
+            Assertions.assertThat(shortLived.current()).isNotNull();
+
+            // when
+            Thread.sleep(50);
+
+            // then
+            Assertions.assertThat(shortLived.current()).isNull();
+        } finally {
+            shortLived.shutdown();
+        }
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,49 @@
+package com.learn.springboot.sql;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementCacheMetricsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private StatementCacheMetrics statementCacheMetrics;
+
+    @Test
+    @DisplayName("JUnit test for the hit ratio being computed over the last sampling interval")
+    public void givenTwoSamples_whenSample_thenHitRatioOfInterval() {
+        // given
+        BDDMockito.given(jdbcTemplate.queryForList(BDDMockito.anyString()))
+                .willReturn(status(100, 1000))
+                .willReturn(status(110, 1100));
+
+        // when
+        statementCacheMetrics.sample();
+        double afterFirstSample = statementCacheMetrics.getHitRatio();
+        statementCacheMetrics.sample();
+
+        // then
+        Assertions.assertThat(afterFirstSample).isNaN();
+        Assertions.assertThat(statementCacheMetrics.getHitRatio()).isCloseTo(0.9, Offset.offset(1e-9));
+    }
+
+    private static List<Map<String, Object>> status(long prepares, long executions) {
+        return List.of(
+                Map.of("Variable_name", "Com_stmt_execute", "Value", String.valueOf(executions)),
+                Map.of("Variable_name", "Com_stmt_prepare", "Value", String.valueOf(prepares)));
+    }
+}
@@ -0,0 +1,149 @@
+package com.learn.springboot.stats;
+
+import com.learn.springboot.dto.EmployeeStats;
+import com.learn.springboot.entity.Employee;
+import com.learn.springboot.event.EmployeeChangeType;
+import com.learn.springboot.event.EmployeeChangedEvent;
+import com.learn.springboot.repo.EmployeeRepository;
+import com.learn.springboot.repo.EmployeeStatsView;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeStatisticsTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private EmployeeStatistics employeeStatistics;
+
+    @Test
+    @DisplayName("JUnit test for counters maintained from change events")
+    public void givenRebuiltCounts_whenEmployeesChange_thenCountsFollow() {
+        // given
+        Employee sudhanshu = Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build();
+        Employee kapil = Employee.builder().id(2L).firstName("Kapil").lastName("Kumar").email("kapil@gmail.com").build();
+        BDDMockito.given(employeeRepository.findAllStatsViewsBy()).willReturn(List.of(view(sudhanshu), view(kapil)));
+        employeeStatistics.reconcile();
+
+        // when
+        employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.CREATED, 3L,
+                Employee.builder().id(3L).firstName("Ajay").lastName("Kumar").email("ajay@learn.com").build()));
+        employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.UPDATED, 1L,
+                Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@learn.com").build()));
+        employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.DELETED, 2L, null));
+        EmployeeStats stats = employeeStatistics.getStats();
+
+        // then
+        Assertions.assertThat(stats.getTotal()).isEqualTo(2);
+        Assertions.assertThat(stats.getByEmailDomain()).isEqualTo(Map.of("learn.com", 2L));
+        Assertions.assertThat(stats.getByLastNameInitial()).isEqualTo(Map.of("A", 1L, "K", 1L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for reconcile replacing drifted counters")
+    public void givenDriftedCounts_whenReconcile_thenCountsMatchDatabase() {
+        // given
+        employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.CREATED, 9L,
+                Employee.builder().id(9L).firstName("Ram").lastName("Singh").email("ram@gmail.com").build()));
+        BDDMockito.given(employeeRepository.findAllStatsViewsBy()).willReturn(List.of(view(
+                Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build())));
+
+        // when
+        employeeStatistics.reconcile();
+        EmployeeStats stats = employeeStatistics.getStats();
+
+        // then
+        Assertions.assertThat(stats.getTotal()).isEqualTo(1);
+        Assertions.assertThat(stats.getByLastNameInitial()).isEqualTo(Map.of("A", 1L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for changes committed during reconcile winning over the rows it read")
+    public void givenChangesDuringReconcile_whenReconcile_thenStaleRowsAreNotCounted() {
+        // given
+        Employee sudhanshu = Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build();
+        Employee kapil = Employee.builder().id(2L).firstName("Kapil").lastName("Kumar").email("kapil@gmail.com").build();
+        BDDMockito.given(employeeRepository.findAllStatsViewsBy()).willAnswer(invocation -> {
+            // committed after the rows below were read
+            employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.DELETED, 2L, null));
+            employeeStatistics.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangeType.UPDATED, 1L,
+                    sudhanshu.toBuilder().email("sarya@learn.com").build()));
+            return List.of(view(sudhanshu), view(kapil));
+        });
+
+        // when
+        employeeStatistics.reconcile();
+        EmployeeStats stats = employeeStatistics.getStats();
+
+        // then
+        Assertions.assertThat(stats.getTotal()).isEqualTo(1);
+        Assertions.assertThat(stats.getByEmailDomain()).isEqualTo(Map.of("learn.com", 1L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for a change applied while reconcile swaps in the rebuilt counters")
+    public void givenChangeDuringSwap_whenReconcile_thenRebuiltCountsKeepTheChange() throws Exception {
+        // given
+        Employee sudhanshu = Employee.builder().id(1L).firstName("Sudhanshu").lastName("Arya").email("sarya@gmail.com").build();
+        Employee ajay = Mockito.spy(Employee.builder().id(3L).firstName("Ajay").lastName("Kumar").email("ajay@learn.com").build());
+        CountDownLatch listenerApplying = new CountDownLatch(1);
+        CountDownLatch releaseListener = new CountDownLatch(1);
+        // the listener is held while it applies the change to the counters it saw first
+        BDDMockito.willAnswer(invocation -> {
+            listenerApplying.countDown();
+            releaseListener.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).given(ajay).getEmail();
+        Thread listener = new Thread(() -> employeeStatistics.onEmployeeChanged(
+                new EmployeeChangedEvent(EmployeeChangeType.CREATED, 3L, ajay)));
+        // the rows were read before the change committed
+        BDDMockito.given(employeeRepository.findAllStatsViewsBy()).willAnswer(invocation -> {
+            listener.start();
+            listenerApplying.await(5, TimeUnit.SECONDS);
+            return List.of(view(sudhanshu));
+        });
+
+        // when
+        employeeStatistics.reconcile();
+        releaseListener.countDown();
+        listener.join();
+        EmployeeStats stats = employeeStatistics.getStats();
+
+        // then
+        Assertions.assertThat(stats.getTotal()).isEqualTo(2);
+        Assertions.assertThat(stats.getByEmailDomain()).isEqualTo(Map.of("gmail.com", 1L, "learn.com", 1L));
+    }
+
+    private static EmployeeStatsView view(Employee employee) {
+        return new EmployeeStatsView() {
+            @Override
+            public Long getId() {
+                return employee.getId();
+            }
+
+            @Override
+            public String getEmail() {
+                return employee.getEmail();
+            }
+
+            @Override
+            public String getLastName() {
+                return employee.getLastName();
+            }
+        };
+    }
+}
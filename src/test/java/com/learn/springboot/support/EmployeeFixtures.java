@@ -0,0 +1,25 @@
+package com.learn.springboot.support;
+
+import com.learn.springboot.entity.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EmployeeFixtures {
+
+    private EmployeeFixtures() {
+    }
+
+    // Unsaved employee number i, names and email are unique per number
+    public static Employee numberedEmployee(int i) {
+        return Employee.builder().firstName("First" + i).lastName("Last" + i).email("emp" + i + "@gmail.com").build();
+    }
+
+    public static List<Employee> numberedEmployees(int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(numberedEmployee(i));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,32 @@
+package com.learn.springboot.support;
+
+import com.learn.springboot.sql.QueryCount;
+import org.assertj.core.api.Assertions;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public final class QueryBudget {
+
+    // The same SELECT run this often for one operation is treated as an N+1 pattern
+    private static final int N_PLUS_ONE_THRESHOLD = 3;
+
+    private QueryBudget() {
+    }
+
+    public static void assertQueryBudget(QueryCount count, int selects, int inserts, int updates, int deletes) {
+        Assertions.assertThat(count.getSelects()).as("SELECT statements in %s", count).isEqualTo(selects);
+        Assertions.assertThat(count.getInserts()).as("INSERT statements in %s", count).isEqualTo(inserts);
+        Assertions.assertThat(count.getUpdates()).as("UPDATE statements in %s", count).isEqualTo(updates);
+        Assertions.assertThat(count.getDeletes()).as("DELETE statements in %s", count).isEqualTo(deletes);
+        assertNoNPlusOne(count);
+    }
+
+    public static void assertNoNPlusOne(QueryCount count) {
+        Map<String, Integer> repeated = count.getSelectExecutions().entrySet().stream()
+                .filter(entry -> entry.getValue() >= N_PLUS_ONE_THRESHOLD)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        Assertions.assertThat(repeated).as("SELECT statements repeated %d or more times (N+1)", N_PLUS_ONE_THRESHOLD)
+                .isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.learn.springboot.web;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class CacheControlPoliciesTest {
+
+    private final CacheControlPolicies cacheControlPolicies = new CacheControlPolicies(true, 5, 30, 30, 60);
+
+    @Test
+    @DisplayName("JUnit test for reads getting a short max-age with stale-while-revalidate")
+    public void givenReadRequests_whenHeaderFor_thenReadPolicies() {
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("GET", "/api/employee")))
+                .contains("max-age=5, stale-while-revalidate=30");
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("GET", "/api/employee/7")))
+                .contains("max-age=5, stale-while-revalidate=30");
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("GET", "/api/employee/stats")))
+                .contains("max-age=30, stale-while-revalidate=60");
+    }
+
+    @Test
+    @DisplayName("JUnit test for writes and unknown paths getting no policy")
+    public void givenWriteRequests_whenHeaderFor_thenNoPolicy() {
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("PUT", "/api/employee/7")))
+                .isEmpty();
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("GET", "/actuator/health")))
+                .isEmpty();
+        // the change feed sets no-store itself
+        Assertions.assertThat(cacheControlPolicies.headerFor(new MockHttpServletRequest("GET", "/api/employee/changes")))
+                .isEmpty();
+        Assertions.assertThat(new CacheControlPolicies(false, 5, 30, 30, 60)
+                .headerFor(new MockHttpServletRequest("GET", "/api/employee"))).isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package com.learn.springboot.web;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+
+public class CompressionThresholdFilterTest {
+
+    private final CompressionThresholdFilter compressionThresholdFilter =
+            new CompressionThresholdFilter(DataSize.ofKilobytes(2), new String[]{"application/json"});
+
+    @Test
+    @DisplayName("JUnit test for a JSON body below the threshold being sent with its length, so it is not gzipped")
+    public void givenSmallJsonBody_whenFilter_thenContentLengthSet() throws Exception {
+        // given
+        byte[] body = "{\"id\":1,\"email\":\"sarya@gmail.com\"}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE, body);
+
+        // then
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(body.length));
+        Assertions.assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("JUnit test for large JSON and non-JSON bodies streaming through without a length")
+    public void givenLargeOrOtherBody_whenFilter_thenStreamedWithoutContentLength() throws Exception {
+        // given
+        byte[] large = ("[" + "{\"id\":1},".repeat(300) + "{\"id\":2}]").getBytes(StandardCharsets.UTF_8);
+        byte[] event = "retry:3000\n\n".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        MockHttpServletResponse largeResponse = filter(MediaType.APPLICATION_JSON_VALUE, large);
+        MockHttpServletResponse eventResponse = filter(MediaType.TEXT_EVENT_STREAM_VALUE, event);
+
+        // then
+        Assertions.assertThat(largeResponse.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        Assertions.assertThat(largeResponse.getContentAsByteArray()).isEqualTo(large);
+        Assertions.assertThat(eventResponse.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        Assertions.assertThat(eventResponse.getContentAsByteArray()).isEqualTo(event);
+    }
+
+    // the body is written in small pieces, the way Jackson flushes its buffer
+    private MockHttpServletResponse filter(String contentType, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employee");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        compressionThresholdFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType(contentType);
+            for (int offset = 0; offset < body.length; offset += 100) {
+                res.getOutputStream().write(body, offset, Math.min(100, body.length - offset));
+                res.getOutputStream().flush();
+            }
+        });
+        return response;
+    }
+}